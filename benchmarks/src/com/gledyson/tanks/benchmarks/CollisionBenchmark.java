@@ -0,0 +1,124 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.physics.OrientedBox;
+import com.gledyson.tanks.physics.ShotSweep;
+import com.gledyson.tanks.physics.SpatialGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.gledyson.tanks.benchmarks.Fixtures.SEED;
+import static com.gledyson.tanks.benchmarks.Fixtures.STEP;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_HEIGHT;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_WIDTH;
+
+// Shot against tank hit tests, the same work GameWorld.evaluateCollisions does each step with
+// the same ShotSweep: through the spatial grid, and against every tank for comparison.
+// Nothing is removed on a hit, so every invocation sees the same shots.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"10", "100", "500"})
+    public int count; // tanks, and as many shots
+
+    private Array<Tank> tanks;
+    private Projectiles projectiles;
+    private SpatialGrid grid;
+    private IntArray candidates;
+    private ShotSweep shotSweep;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        TankFactory factory = new TankFactory();
+
+        tanks = new Array<>();
+        for (int i = 0; i < count; i++) {
+            Tank tank = factory.createEnemyTank(
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT,
+                    random.nextFloat() * 360, null);
+            tank.setId(i);
+            tank.setTeam(Tank.TEAM_ENEMY);
+            tanks.add(tank);
+        }
+
+        // shots one step into their flight, so each has a swept segment
+        projectiles = new Projectiles(count);
+        for (int i = 0; i < count; i++) {
+            // half the shots are the tanks' own and pass through
+            projectiles.add(i, i % 2,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT,
+                    21, 38, 800, random.nextFloat() * 360, 1000);
+        }
+        projectiles.integrate(STEP, -WORLD_WIDTH, -WORLD_HEIGHT, 2 * WORLD_WIDTH, 2 * WORLD_HEIGHT);
+
+        grid = new SpatialGrid(0, 0, WORLD_WIDTH, WORLD_HEIGHT, 64);
+        candidates = new IntArray();
+        shotSweep = new ShotSweep();
+    }
+
+    @Benchmark
+    public int grid() {
+        grid.clear();
+        for (Tank tank : tanks) {
+            OrientedBox box = tank.getOrientedBox();
+            grid.insert(tank.getId(), box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+        }
+
+        int hits = 0;
+        for (int shot = 0; shot < projectiles.getCount(); shot++) {
+            shotSweep.set(projectiles, shot);
+
+            candidates.clear();
+            grid.query(shotSweep.getMinX(), shotSweep.getMinY(), shotSweep.getMaxX(), shotSweep.getMaxY(), candidates);
+
+            Tank hitTank = null;
+            for (int i = 0; i < candidates.size; i++) {
+                Tank tank = tanks.get(candidates.get(i));
+                if (tank.getTeam() == projectiles.getTeam(shot)) continue;
+
+                if (shotSweep.offer(tank.getOrientedBox())) hitTank = tank;
+            }
+            if (hitTank != null) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        int hits = 0;
+        for (int shot = 0; shot < projectiles.getCount(); shot++) {
+            shotSweep.set(projectiles, shot);
+
+            Tank hitTank = null;
+            for (int i = 0; i < tanks.size; i++) {
+                Tank tank = tanks.get(i);
+                if (tank.getTeam() == projectiles.getTeam(shot)) continue;
+
+                if (shotSweep.offer(tank.getOrientedBox())) hitTank = tank;
+            }
+            if (hitTank != null) hits++;
+        }
+        return hits;
+    }
+}
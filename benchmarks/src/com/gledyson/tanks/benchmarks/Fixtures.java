@@ -0,0 +1,22 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+
+// Shared setup for the benchmark states
+final class Fixtures {
+    static final float WORLD_WIDTH = 480;
+    static final float WORLD_HEIGHT = 800;
+    static final float STEP = 1 / 60f;
+    static final long SEED = 42;
+
+    private Fixtures() {
+    }
+
+    // GameWorld reads its behavior tree through Gdx.files, the jmh task runs from the assets
+    static void installFiles() {
+        if (Gdx.files == null) {
+            Gdx.files = new HeadlessFiles();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import com.gledyson.tanks.effects.ShakeEffect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.gledyson.tanks.benchmarks.Fixtures.STEP;
+
+// ShakeEffect.updateAndGetPosition over a whole shake. There is only ever one shake, so the
+// count is how many frames it lasts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShakeBenchmark {
+    @Param({"1", "12", "60"})
+    public int count;
+
+    @Benchmark
+    public float shake() {
+        ShakeEffect.shakeIt(4f, count * STEP);
+        float sum = 0;
+        for (int i = 0; i < count; i++) {
+            Vector3 position = ShakeEffect.updateAndGetPosition(STEP);
+            sum += position.x + position.y;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.gledyson.tanks.objects.Projectiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.gledyson.tanks.benchmarks.Fixtures.SEED;
+import static com.gledyson.tanks.benchmarks.Fixtures.STEP;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_HEIGHT;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_WIDTH;
+
+// Moving shots one step, and the interpolation the screen does to draw them.
+// Bounds are unlimited, but shots still expire after 4 s of steps, about 240 calls. integrate()
+// lays them out again once they're gone, so every call moves count shots and the refill
+// costs under 1% of the calls.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShotIntegrationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    private Projectiles projectiles;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        projectiles = new Projectiles(count);
+        layOut();
+    }
+
+    private void layOut() {
+        Random random = new Random(SEED);
+        projectiles.clear();
+        for (int i = 0; i < count; i++) {
+            projectiles.add(0, 0,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT,
+                    21, 38, 800, random.nextFloat() * 360, 1000);
+        }
+    }
+
+    @Benchmark
+    public int integrate() {
+        // all shots are the same age, so they expire on the same call
+        if (projectiles.getCount() < count) layOut();
+        projectiles.integrate(STEP, -Float.MAX_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        return projectiles.getCount();
+    }
+
+    @Benchmark
+    public float interpolate() {
+        float sum = 0;
+        for (int i = 0; i < projectiles.getCount(); i++) {
+            sum += projectiles.getInterpolatedX(i, 0.5f) + projectiles.getInterpolatedY(i, 0.5f);
+        }
+        return sum;
+    }
+}
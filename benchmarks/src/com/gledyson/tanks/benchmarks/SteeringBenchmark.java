@@ -0,0 +1,72 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.WorldAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.gledyson.tanks.benchmarks.Fixtures.SEED;
+import static com.gledyson.tanks.benchmarks.Fixtures.STEP;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_HEIGHT;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_WIDTH;
+
+// EnemyTank.update for every enemy of a world: the flow field chase blended with crowd
+// steering, neighbours from the world's tank grid. The world steps once in setup to build
+// the flow field, the tank grid is rebuilt every call like step() does, so neighbours
+// come from where the tanks are now.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SteeringBenchmark {
+    @Param({"10", "100", "500"})
+    public int count;
+
+    private GameWorld world;
+    private Array<EnemyTank> enemies;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Fixtures.installFiles();
+
+        Random random = new Random(SEED);
+        world = new GameWorld(WORLD_WIDTH, WORLD_HEIGHT, new TankFactory(), new WorldAdapter());
+        for (int i = 0; i < count; i++) {
+            world.spawnEnemyTank(
+                    random.nextFloat() * WORLD_WIDTH, WORLD_HEIGHT / 2 + random.nextFloat() * WORLD_HEIGHT / 2,
+                    0);
+        }
+        world.step(STEP, 0);
+        enemies = world.getEnemyTanks();
+    }
+
+    @Benchmark
+    public float update() {
+        world.rebuildTankGrid();
+        float sum = 0;
+        for (int i = 0; i < enemies.size; i++) {
+            EnemyTank enemy = enemies.get(i);
+            enemy.update(STEP);
+            sum += enemy.getPositionX();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gledyson.tanks.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.gledyson.tanks.benchmarks.Fixtures.SEED;
+import static com.gledyson.tanks.benchmarks.Fixtures.STEP;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_HEIGHT;
+import static com.gledyson.tanks.benchmarks.Fixtures.WORLD_WIDTH;
+
+// Tank.leaveTracks for tanks driving in circles, so prints keep being added and expiring
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackBenchmark {
+    // degrees per second
+    private static final float TURN_RATE = 45;
+
+    @Param({"1", "10", "100"})
+    public int count;
+
+    private Array<Tank> tanks;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Random random = new Random(SEED);
+        TankFactory factory = new TankFactory();
+        tanks = new Array<>();
+        for (int i = 0; i < count; i++) {
+            tanks.add(factory.createPlayerTank(
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT,
+                    random.nextFloat() * 360));
+        }
+    }
+
+    @Benchmark
+    public int leaveTracks() {
+        int prints = 0;
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            tank.update(STEP);
+
+            float angle = tank.getOrientation() * MathUtils.radiansToDegrees + TURN_RATE * STEP;
+            tank.setOrientation(angle * MathUtils.degreesToRadians);
+            tank.updatePosition(
+                    tank.getPositionX() + MathUtils.sinDeg(angle) * tank.getSpeed() * STEP,
+                    tank.getPositionY() - MathUtils.cosDeg(angle) * tank.getSpeed() * STEP);
+
+            if (tank.leaveTracks(false)) prints++;
+        }
+        return prints;
+    }
+}
@@ -3,7 +3,9 @@ package com.gledyson.tanks;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.gledyson.tanks.debug.AllocationCounter;
 import com.gledyson.tanks.screens.MainGameScreen;
+import com.gledyson.tanks.spawn.StressScenario;
 
 public class TanksGame extends Game {
     // Game-wide settings
@@ -16,6 +18,38 @@ public class TanksGame extends Game {
     // load font
     public BitmapFont font;
 
+    // which enemies to play against
+    public final StressScenario scenario;
+
+    // per-frame allocation tracking, null when the platform has no counter or it's off
+    public final AllocationCounter allocationCounter;
+
+    // record the match for replaying it headless, F5 saves it
+    public final boolean recordReplay;
+
+    // play on EcsWorld instead of GameWorld, see EcsWorld for what it doesn't do yet.
+    // It has its own enemies, the scenario and recording don't apply.
+    public final boolean ecs;
+
+    public TanksGame() {
+        this(StressScenario.DEFAULT);
+    }
+
+    public TanksGame(StressScenario scenario) {
+        this(scenario, null, false);
+    }
+
+    public TanksGame(StressScenario scenario, AllocationCounter allocationCounter, boolean recordReplay) {
+        this(scenario, allocationCounter, recordReplay, false);
+    }
+
+    public TanksGame(StressScenario scenario, AllocationCounter allocationCounter, boolean recordReplay, boolean ecs) {
+        this.scenario = scenario;
+        this.allocationCounter = allocationCounter;
+        this.recordReplay = recordReplay;
+        this.ecs = ecs;
+    }
+
     @Override
     public void create() {
         batch = new SpriteBatch();
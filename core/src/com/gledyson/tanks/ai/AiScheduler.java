@@ -0,0 +1,236 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.objects.Tank;
+
+import java.nio.ByteBuffer;
+
+// Level of detail for enemy AI. Agents are bucketed every step by how far they are outside the
+// visible area: NEAR ones (on screen or about to be) think every step, MID every 2nd and FAR
+// every 4th, with the skipped time handed over so they still move at the right speed. Updates
+// are staggered so a bucket's agents don't all land on the same step. Only off-screen agents
+// ever run slower, on-screen ones would visibly stutter.
+// Agents that were just hit count as NEAR for a moment. Past the per-step budget the remaining
+// agents are deferred to the next step, nearest buckets go first.
+public class AiScheduler {
+    public static final int NEAR = 0;
+    public static final int MID = 1;
+    public static final int FAR = 2;
+    public static final int BUCKET_COUNT = 3;
+
+    private static final int[] PERIOD = {1, 2, 4};
+    private static final float PROMOTION_TIME = 1f;
+
+    private final float nearMargin;
+    private final float midMargin;
+    private long budgetNanos;
+
+    private float visibleMinX;
+    private float visibleMinY;
+    private float visibleMaxX;
+    private float visibleMaxY;
+
+    private final Array<EnemyTank> agents;
+    private float[] accumulatedDelta;
+    private int[] stepsSinceUpdate;
+    private int[] bucket;
+    private float[] promotedTime;
+
+    // where the round-robin starts this step, so deferred agents take turns
+    private int cursor;
+
+    // Stats, per bucket
+    private final int[] agentCount = new int[BUCKET_COUNT];
+    private final int[] updateCount = new int[BUCKET_COUNT];
+    private final long[] stepNanos = new long[BUCKET_COUNT];
+    private final long[] totalNanos = new long[BUCKET_COUNT];
+    private int deferredCount;
+
+    // nearMargin, midMargin: distances outside the visible area where NEAR and MID end
+    // budgetNanos: AI time allowed per step, 0 for no limit
+    public AiScheduler(float nearMargin, float midMargin, long budgetNanos) {
+        this.nearMargin = nearMargin;
+        this.midMargin = midMargin;
+        this.budgetNanos = budgetNanos;
+
+        this.agents = new Array<>();
+        this.accumulatedDelta = new float[16];
+        this.stepsSinceUpdate = new int[16];
+        this.bucket = new int[16];
+        this.promotedTime = new float[16];
+    }
+
+    public void add(EnemyTank agent) {
+        int i = agents.size;
+        if (i == accumulatedDelta.length) {
+            accumulatedDelta = resize(accumulatedDelta);
+            stepsSinceUpdate = resize(stepsSinceUpdate);
+            bucket = resize(bucket);
+            promotedTime = resize(promotedTime);
+        }
+        agents.add(agent);
+        accumulatedDelta[i] = 0f;
+        // stagger: the slowest period decides when an agent first comes up
+        stepsSinceUpdate[i] = i % PERIOD[FAR];
+        bucket[i] = NEAR;
+        promotedTime[i] = 0f;
+    }
+
+    public void remove(EnemyTank agent) {
+        int i = agents.indexOf(agent, true);
+        if (i < 0) return;
+
+        int moved = agents.size - i - 1;
+        agents.removeIndex(i);
+        System.arraycopy(accumulatedDelta, i + 1, accumulatedDelta, i, moved);
+        System.arraycopy(stepsSinceUpdate, i + 1, stepsSinceUpdate, i, moved);
+        System.arraycopy(bucket, i + 1, bucket, i, moved);
+        System.arraycopy(promotedTime, i + 1, promotedTime, i, moved);
+        if (cursor >= agents.size) cursor = 0;
+    }
+
+    // Think at full rate for a while, e.g. after being hit
+    public void promote(EnemyTank agent) {
+        int i = agents.indexOf(agent, true);
+        if (i >= 0) promotedTime[i] = PROMOTION_TIME;
+    }
+
+    // The area the player sees, in world units
+    public void setVisibleArea(float x, float y, float width, float height) {
+        visibleMinX = x;
+        visibleMinY = y;
+        visibleMaxX = x + width;
+        visibleMaxY = y + height;
+    }
+
+    public void update(float delta) {
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            agentCount[b] = 0;
+            updateCount[b] = 0;
+            stepNanos[b] = 0;
+        }
+        deferredCount = 0;
+
+        int count = agents.size;
+        for (int i = 0; i < count; i++) {
+            EnemyTank agent = agents.get(i);
+            if (agent.isDead()) continue;
+
+            accumulatedDelta[i] += delta;
+            stepsSinceUpdate[i]++;
+            if (promotedTime[i] > 0) promotedTime[i] -= delta;
+
+            bucket[i] = promotedTime[i] > 0 ? NEAR : bucketFor(agent);
+            agentCount[bucket[i]]++;
+        }
+
+        long start = TimeUtils.nanoTime();
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            long bucketStart = TimeUtils.nanoTime();
+            for (int n = 0; n < count; n++) {
+                int i = (cursor + n) % count;
+                if (bucket[i] != b || agents.get(i).isDead() || stepsSinceUpdate[i] < PERIOD[b]) continue;
+
+                if (budgetNanos > 0 && TimeUtils.timeSinceNanos(start) > budgetNanos) {
+                    // stays due for the next step
+                    deferredCount++;
+                    continue;
+                }
+
+                agents.get(i).update(accumulatedDelta[i]);
+                accumulatedDelta[i] = 0f;
+                stepsSinceUpdate[i] = 0;
+                updateCount[b]++;
+            }
+            stepNanos[b] = TimeUtils.timeSinceNanos(bucketStart);
+            totalNanos[b] += stepNanos[b];
+        }
+        if (count > 0) cursor = (cursor + 1) % count;
+    }
+
+    private int bucketFor(EnemyTank agent) {
+        // distance from the center to the visible area, 0 inside it
+        float centerX = agent.getPositionX() + agent.getWidth() / 2;
+        float centerY = agent.getPositionY() + agent.getHeight() / 2;
+        float dx = Math.max(0, Math.max(visibleMinX - centerX, centerX - visibleMaxX));
+        float dy = Math.max(0, Math.max(visibleMinY - centerY, centerY - visibleMaxY));
+        float distance2 = dx * dx + dy * dy;
+        if (distance2 <= nearMargin * nearMargin) return NEAR;
+        if (distance2 <= midMargin * midMargin) return MID;
+        return FAR;
+    }
+
+    private static float[] resize(float[] array) {
+        float[] resized = new float[array.length * 2];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+
+    private static int[] resize(int[] array) {
+        int[] resized = new int[array.length * 2];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+
+    public void clear() {
+        agents.clear();
+        cursor = 0;
+    }
+
+    // Agents by tank id in their order, with where each one is in its schedule
+    public void write(ByteBuffer out) {
+        out.putInt(cursor);
+        out.putInt(agents.size);
+        for (int i = 0; i < agents.size; i++) {
+            out.putInt(agents.get(i).getId());
+            out.putFloat(accumulatedDelta[i]);
+            out.putInt(stepsSinceUpdate[i]);
+            out.put((byte) bucket[i]);
+            out.putFloat(promotedTime[i]);
+        }
+    }
+
+    // tanks: the world's tanks, indexed by id
+    public void read(ByteBuffer in, Array<Tank> tanks) {
+        agents.clear();
+        int readCursor = in.getInt();
+        int agentCount = in.getInt();
+        for (int i = 0; i < agentCount; i++) {
+            add((EnemyTank) tanks.get(in.getInt()));
+            accumulatedDelta[i] = in.getFloat();
+            stepsSinceUpdate[i] = in.getInt();
+            bucket[i] = in.get();
+            promotedTime[i] = in.getFloat();
+        }
+        cursor = readCursor;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    // living agents in the bucket, as of the last update()
+    public int getAgentCount(int bucket) {
+        return agentCount[bucket];
+    }
+
+    // agents that thought in the last update()
+    public int getUpdateCount(int bucket) {
+        return updateCount[bucket];
+    }
+
+    public long getStepNanos(int bucket) {
+        return stepNanos[bucket];
+    }
+
+    public long getTotalNanos(int bucket) {
+        return totalNanos[bucket];
+    }
+
+    // agents that were due but ran past the budget in the last update()
+    public int getDeferredCount() {
+        return deferredCount;
+    }
+}
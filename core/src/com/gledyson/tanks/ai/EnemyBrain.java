@@ -0,0 +1,77 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeLibraryManager;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.objects.EnemyTank;
+
+import java.nio.ByteBuffer;
+
+// Enemy decisions from a behavior tree. The tree file is parsed once by gdx-ai's library, and
+// every enemy is ticked through the same tree instance: its tasks finish in the tick they start,
+// so the tree holds no per-agent state and the decision lives on the tank (its steering behaviour).
+// Only agentsPerStep enemies decide each step, round-robin, so the cost stays flat as enemies are
+// added; in between they keep steering with their last decision.
+public class EnemyBrain {
+    private final BehaviorTree<EnemyTank> tree;
+    private final int agentsPerStep;
+    private int cursor;
+
+    // Stats
+    private int tickCount;
+    private long stepNanos;
+    private long totalNanos;
+
+    public EnemyBrain(String treeReference, int agentsPerStep) {
+        this.tree = BehaviorTreeLibraryManager.getInstance().createBehaviorTree(treeReference);
+        this.agentsPerStep = agentsPerStep;
+    }
+
+    public void update(Array<EnemyTank> agents) {
+        long start = TimeUtils.nanoTime();
+        tickCount = 0;
+
+        int count = agents.size;
+        if (cursor >= count) cursor = 0;
+        // at most one pass over the agents, skipping dead ones
+        for (int n = 0; n < count && tickCount < agentsPerStep; n++) {
+            EnemyTank agent = agents.get(cursor);
+            cursor = (cursor + 1) % count;
+            if (agent.isDead()) continue;
+
+            tree.setObject(agent);
+            tree.step();
+            tickCount++;
+        }
+
+        stepNanos = TimeUtils.timeSinceNanos(start);
+        totalNanos += stepNanos;
+    }
+
+    public void clear() {
+        cursor = 0;
+    }
+
+    // the tree itself holds nothing between ticks, only whose turn it is
+    public void write(ByteBuffer out) {
+        out.putInt(cursor);
+    }
+
+    public void read(ByteBuffer in) {
+        cursor = in.getInt();
+    }
+
+    // agents that decided in the last update()
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
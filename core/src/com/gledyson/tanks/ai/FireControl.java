@@ -0,0 +1,57 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.gledyson.tanks.objects.Tank;
+
+// Decides whether a shot is worth firing: the target has to be in line of sight from the muzzle
+// and the hull, which is where the shell goes, has to point at it within the tolerance.
+public class FireControl {
+    private final VisibilityCache visibility;
+    private final float minAimCosine; // cosine of the aim tolerance
+
+    // Stats
+    private int clearCount;
+    private int blockedCount;
+    private int misalignedCount;
+
+    public FireControl(VisibilityCache visibility, float aimToleranceDegrees) {
+        this.visibility = visibility;
+        this.minAimCosine = MathUtils.cosDeg(aimToleranceDegrees);
+    }
+
+    public boolean hasClearShot(Tank shooter, Tank target) {
+        // shells leave the front of the hull (same muzzle as Tank.fire) and fly along (sin, -cos) of the orientation
+        float forwardX = MathUtils.sin(shooter.getOrientation());
+        float forwardY = -MathUtils.cos(shooter.getOrientation());
+        float muzzleX = shooter.getPositionX() + shooter.getWidth() / 2 + forwardX * shooter.getWidth() / 2;
+        float muzzleY = shooter.getPositionY() + shooter.getHeight() / 2 + forwardY * shooter.getHeight() / 2;
+
+        float toTargetX = target.getPositionX() + target.getWidth() / 2 - muzzleX;
+        float toTargetY = target.getPositionY() + target.getHeight() / 2 - muzzleY;
+        float distance = (float) Math.sqrt(toTargetX * toTargetX + toTargetY * toTargetY);
+
+        // compare cosines instead of angles, no atan2 per shot
+        if (distance > 0 && (forwardX * toTargetX + forwardY * toTargetY) / distance < minAimCosine) {
+            misalignedCount++;
+            return false;
+        }
+        if (!visibility.hasLineOfSight(muzzleX, muzzleY, muzzleX + toTargetX, muzzleY + toTargetY)) {
+            blockedCount++;
+            return false;
+        }
+        clearCount++;
+        return true;
+    }
+
+    public int getClearCount() {
+        return clearCount;
+    }
+
+    public int getBlockedCount() {
+        return blockedCount;
+    }
+
+    public int getMisalignedCount() {
+        return misalignedCount;
+    }
+}
@@ -0,0 +1,178 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Arrays;
+
+// One Dijkstra pass from the target's tile gives every tile its cost to the target (integration field)
+// and the neighbour to move to next (direction field). Any number of agents then sample it in O(1).
+// The field is only rebuilt when the target changes tile or the grid changes.
+public class FlowField {
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NO_DIRECTION = -1;
+
+    // the 8 neighbours, straight ones first
+    private static final int[] NEIGHBOUR_COLUMN = {1, -1, 0, 0, 1, -1, 1, -1};
+    private static final int[] NEIGHBOUR_ROW = {0, 0, 1, -1, 1, 1, -1, -1};
+    private static final float[] DIRECTION_X = new float[8];
+    private static final float[] DIRECTION_Y = new float[8];
+
+    static {
+        for (int i = 0; i < 8; i++) {
+            float length = (float) Math.sqrt(NEIGHBOUR_COLUMN[i] * NEIGHBOUR_COLUMN[i] + NEIGHBOUR_ROW[i] * NEIGHBOUR_ROW[i]);
+            DIRECTION_X[i] = NEIGHBOUR_COLUMN[i] / length;
+            DIRECTION_Y[i] = NEIGHBOUR_ROW[i] / length;
+        }
+    }
+
+    private final NavigationGrid grid;
+    private final int[] cost;
+    private final byte[] direction;
+
+    // binary min-heap of (tile, cost when pushed), a tile is pushed again instead of decreasing its key
+    private int[] heapCells;
+    private int[] heapCosts;
+    private int heapSize;
+
+    private int targetCell = -1;
+    private int builtVersion = -1;
+    private int rebuildCount;
+
+    public FlowField(NavigationGrid grid) {
+        this.grid = grid;
+        this.cost = new int[grid.getCellCount()];
+        this.direction = new byte[grid.getCellCount()];
+        this.heapCells = new int[grid.getCellCount()];
+        this.heapCosts = new int[grid.getCellCount()];
+    }
+
+    // Call once per step with the target's position. Returns true if the field was rebuilt.
+    public boolean update(float targetX, float targetY) {
+        int cell = grid.cellAt(targetX, targetY);
+        if (cell == targetCell && builtVersion == grid.getVersion()) return false;
+
+        targetCell = cell;
+        builtVersion = grid.getVersion();
+        build();
+        rebuildCount++;
+        return true;
+    }
+
+    private void build() {
+        Arrays.fill(cost, UNREACHABLE);
+        Arrays.fill(direction, (byte) NO_DIRECTION);
+
+        heapSize = 0;
+        cost[targetCell] = 0;
+        push(targetCell, 0);
+
+        int columns = grid.getColumns();
+        while (heapSize > 0) {
+            int cellCost = heapCosts[0];
+            int cell = pop();
+            // stale entry, the tile was reached more cheaply since
+            if (cellCost > cost[cell]) continue;
+
+            int column = cell % columns;
+            int row = cell / columns;
+
+            for (int i = 0; i < 8; i++) {
+                int neighbourColumn = column + NEIGHBOUR_COLUMN[i];
+                int neighbourRow = row + NEIGHBOUR_ROW[i];
+                if (grid.isBlocked(neighbourColumn, neighbourRow)) continue;
+
+                boolean diagonal = i >= 4;
+                // no cutting corners past a blocked tile
+                if (diagonal && (grid.isBlocked(neighbourColumn, row) || grid.isBlocked(column, neighbourRow))) continue;
+
+                int neighbour = grid.cell(neighbourColumn, neighbourRow);
+                int newCost = cost[cell] + (diagonal ? DIAGONAL_COST : STRAIGHT_COST);
+                if (newCost < cost[neighbour]) {
+                    cost[neighbour] = newCost;
+                    // from the neighbour, the way to the target is back towards this tile
+                    direction[neighbour] = (byte) opposite(i);
+                    push(neighbour, newCost);
+                }
+            }
+        }
+    }
+
+    // Writes the unit direction to follow from x, y. False at the target tile or where it can't be reached.
+    public boolean getDirection(float x, float y, Vector2 out) {
+        int dir = direction[grid.cellAt(x, y)];
+        if (dir == NO_DIRECTION) return false;
+
+        out.set(DIRECTION_X[dir], DIRECTION_Y[dir]);
+        return true;
+    }
+
+    // integration cost from the tile at x, y, in tenths of a tile; -1 if unreachable
+    public int getCost(float x, float y) {
+        int value = cost[grid.cellAt(x, y)];
+        return value == UNREACHABLE ? -1 : value;
+    }
+
+    private static int opposite(int i) {
+        // pairs are laid out as (0,1) (2,3) (4,7) (5,6)
+        switch (i) {
+            case 0: return 1;
+            case 1: return 0;
+            case 2: return 3;
+            case 3: return 2;
+            case 4: return 7;
+            case 5: return 6;
+            case 6: return 5;
+            default: return 4;
+        }
+    }
+
+    private void push(int cell, int key) {
+        if (heapSize == heapCells.length) {
+            heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+            heapCosts = Arrays.copyOf(heapCosts, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heapCosts[parent] <= key) break;
+            heapCells[i] = heapCells[parent];
+            heapCosts[i] = heapCosts[parent];
+            i = parent;
+        }
+        heapCells[i] = cell;
+        heapCosts[i] = key;
+    }
+
+    private int pop() {
+        int top = heapCells[0];
+        int lastCell = heapCells[--heapSize];
+        int lastCost = heapCosts[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) child++;
+            if (lastCost <= heapCosts[child]) break;
+            heapCells[i] = heapCells[child];
+            heapCosts[i] = heapCosts[child];
+            i = child;
+        }
+        heapCells[i] = lastCell;
+        heapCosts[i] = lastCost;
+        return top;
+    }
+
+    public int getTargetCell() {
+        return targetCell;
+    }
+
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    public NavigationGrid getGrid() {
+        return grid;
+    }
+}
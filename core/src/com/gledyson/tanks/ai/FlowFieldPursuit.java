@@ -0,0 +1,54 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.math.Vector2;
+import com.gledyson.tanks.objects.Tank;
+
+// Follows a shared FlowField towards its target and switches to Arrive for the last stretch,
+// or whenever the field has no direction for the current tile.
+public class FlowFieldPursuit extends SteeringBehavior<Vector2> {
+    private static final float TIME_TO_TARGET = 0.1f;
+
+    private final Tank tank;
+    private final FlowField flowField;
+    private final Tank target;
+    private final Arrive<Vector2> arrive;
+    private final float arriveDistance;
+
+    private final Vector2 flowDirection = new Vector2();
+
+    public FlowFieldPursuit(Tank tank, FlowField flowField, Tank target, float arriveDistance) {
+        super(tank);
+        this.tank = tank;
+        this.flowField = flowField;
+        this.target = target;
+        this.arrive = new Arrive<>(tank, target);
+        this.arriveDistance = arriveDistance;
+    }
+
+    @Override
+    protected SteeringAcceleration<Vector2> calculateRealSteering(SteeringAcceleration<Vector2> steering) {
+        float centerX = tank.getPositionX() + tank.getWidth() / 2;
+        float centerY = tank.getPositionY() + tank.getHeight() / 2;
+
+        if (tank.getPosition().dst2(target.getPosition()) <= arriveDistance * arriveDistance
+                || !flowField.getDirection(centerX, centerY, flowDirection)) {
+            return arrive.calculateSteering(steering);
+        }
+
+        // match the velocity the field asks for, like Arrive does outside its deceleration radius
+        float maxSpeed = getActualLimiter().getMaxLinearSpeed();
+        steering.linear.set(flowDirection).scl(maxSpeed)
+                .sub(tank.getLinearVelocity())
+                .scl(1f / TIME_TO_TARGET)
+                .limit(getActualLimiter().getMaxLinearAcceleration());
+        steering.angular = 0;
+        return steering;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+}
@@ -0,0 +1,60 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.world.GameWorld;
+
+// Neighbours for group behaviours, taken from the world's tank grid instead of scanning every
+// agent like FieldOfViewProximity: only tanks in the cells around the owner are looked at.
+// Reports every other tank, wrecks included, whose center is within radius of the owner's.
+public class GridProximity implements Proximity<Vector2> {
+    private final GameWorld world;
+    private final float radius;
+    private final IntArray candidates = new IntArray();
+    private Tank owner;
+
+    public GridProximity(GameWorld world, Tank owner, float radius) {
+        this.world = world;
+        this.owner = owner;
+        this.radius = radius;
+    }
+
+    @Override
+    public Steerable<Vector2> getOwner() {
+        return owner;
+    }
+
+    @Override
+    public void setOwner(Steerable<Vector2> owner) {
+        this.owner = (Tank) owner;
+    }
+
+    @Override
+    public int findNeighbors(ProximityCallback<Vector2> callback) {
+        float centerX = owner.getPositionX() + owner.getWidth() / 2;
+        float centerY = owner.getPositionY() + owner.getHeight() / 2;
+
+        candidates.clear();
+        world.queryTanks(centerX - radius, centerY - radius, centerX + radius, centerY + radius, candidates);
+
+        int count = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            Tank other = world.getTank(candidates.get(i));
+            if (other == owner) continue;
+
+            float dx = other.getPositionX() + other.getWidth() / 2 - centerX;
+            float dy = other.getPositionY() + other.getHeight() / 2 - centerY;
+            if (dx * dx + dy * dy <= radius * radius && callback.reportNeighbor(other)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.math.MathUtils;
+
+// Walkable / blocked tiles over the world, shared by the flow field, path finder and line of sight.
+// Every change bumps the version, so anything built from the grid knows when to rebuild.
+public class NavigationGrid {
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final boolean[] blocked;
+    private int version;
+
+    public NavigationGrid(float width, float height, float cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, MathUtils.ceil(width / cellSize));
+        this.rows = Math.max(1, MathUtils.ceil(height / cellSize));
+        this.blocked = new boolean[columns * rows];
+    }
+
+    public void setBlocked(int column, int row, boolean value) {
+        int cell = cell(column, row);
+        if (blocked[cell] == value) return;
+
+        blocked[cell] = value;
+        version++;
+    }
+
+    // Blocks (or clears) every tile the rectangle touches
+    public void setBlocked(float x, float y, float width, float height, boolean value) {
+        int lastColumn = column(x + width), lastRow = row(y + height);
+        for (int row = row(y); row <= lastRow; row++) {
+            for (int column = column(x); column <= lastColumn; column++) {
+                setBlocked(column, row, value);
+            }
+        }
+    }
+
+    public boolean isBlocked(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return true;
+        return blocked[cell(column, row)];
+    }
+
+    public boolean isBlocked(int cell) {
+        return blocked[cell];
+    }
+
+    // world position to tile, clamped to the grid
+    public int column(float x) {
+        return MathUtils.clamp(MathUtils.floor(x / cellSize), 0, columns - 1);
+    }
+
+    public int row(float y) {
+        return MathUtils.clamp(MathUtils.floor(y / cellSize), 0, rows - 1);
+    }
+
+    public int cell(int column, int row) {
+        return row * columns + column;
+    }
+
+    public int cellAt(float x, float y) {
+        return cell(column(x), row(y));
+    }
+
+    public int cellColumn(int cell) {
+        return cell % columns;
+    }
+
+    public int cellRow(int cell) {
+        return cell / columns;
+    }
+
+    public float cellCenterX(int column) {
+        return (column + 0.5f) * cellSize;
+    }
+
+    public float cellCenterY(int row) {
+        return (row + 0.5f) * cellSize;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCellCount() {
+        return blocked.length;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
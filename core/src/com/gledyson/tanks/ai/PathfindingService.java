@@ -0,0 +1,201 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinderQueue;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.ai.TileGraph.Tile;
+
+// A* over the TileGraph, time-sliced through a gdx-ai PathFinderQueue.
+// Agents ask with getPath() every step: it returns the cached path, or null while the search
+// is queued. update() runs the queue for at most budgetNanos, so bursts of requests are spread
+// over several steps. Requests are keyed by start and goal buckets of bucketSize tiles, so tanks
+// with nearby starts and goals share one search and one path.
+public class PathfindingService implements Telegraph {
+    private static final int PATH_DONE = 1;
+    private static final int MAX_CACHED_PATHS = 128;
+
+    private final TileGraph graph;
+    private final PathFinderQueue<Tile> queue;
+    private final MessageDispatcher dispatcher;
+    private final TileGraph.OctileHeuristic heuristic;
+    private final Telegram telegram;
+    private final int bucketSize;
+    private final int bucketColumns;
+    private long budgetNanos;
+
+    // paths stay valid until the next update(), an empty path means the goal can't be reached
+    private final LongMap<DefaultGraphPath<Tile>> cache;
+    private final LongMap<TileRequest> pending;
+    private final Pool<TileRequest> requestPool;
+    private final Pool<DefaultGraphPath<Tile>> pathPool;
+    private int version;
+
+    // Stats
+    private int requestCount;
+    private int cacheHits;
+    private int searchCount;
+    private long searchNanos;
+
+    // budgetNanos: time the queue may run per update(), 0 for no limit
+    public PathfindingService(NavigationGrid grid, long budgetNanos, int bucketSize) {
+        this.graph = new TileGraph(grid);
+        this.queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph));
+        this.dispatcher = new MessageDispatcher();
+        this.heuristic = new TileGraph.OctileHeuristic();
+        this.telegram = new Telegram();
+        this.bucketSize = bucketSize;
+        this.bucketColumns = (grid.getColumns() + bucketSize - 1) / bucketSize;
+        this.budgetNanos = budgetNanos;
+
+        this.cache = new LongMap<>();
+        this.pending = new LongMap<>();
+        this.requestPool = new Pool<TileRequest>() {
+            @Override
+            protected TileRequest newObject() {
+                return new TileRequest();
+            }
+        };
+        this.pathPool = new Pool<DefaultGraphPath<Tile>>() {
+            @Override
+            protected DefaultGraphPath<Tile> newObject() {
+                return new DefaultGraphPath<>();
+            }
+        };
+        this.version = grid.getVersion();
+    }
+
+    public GraphPath<Tile> getPath(float startX, float startY, float goalX, float goalY) {
+        requestCount++;
+        Tile start = graph.getTile(startX, startY);
+        Tile goal = graph.getTile(goalX, goalY);
+        long key = key(start, goal);
+
+        DefaultGraphPath<Tile> cached = cache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            return cached;
+        }
+        if (pending.containsKey(key)) return null;
+
+        TileRequest request = requestPool.obtain();
+        request.key = key;
+        request.version = version;
+        request.startNode = start;
+        request.endNode = goal;
+        request.heuristic = heuristic;
+        DefaultGraphPath<Tile> path = pathPool.obtain();
+        path.clear();
+        request.resultPath = path;
+        request.dispatcher = dispatcher;
+        request.responseMessageCode = PATH_DONE;
+        pending.put(key, request);
+
+        telegram.sender = this;
+        telegram.extraInfo = request;
+        queue.handleMessage(telegram);
+        telegram.reset();
+        return null;
+    }
+
+    // Runs queued searches within the budget. Call once per step.
+    public void update() {
+        if (graph.refresh()) {
+            // the map changed, every cached path and running search is stale
+            version = graph.getGrid().getVersion();
+            clearCache();
+        }
+        if (queue.size() == 0 && pending.size == 0) return;
+
+        long start = TimeUtils.nanoTime();
+        queue.run(budgetNanos > 0 ? budgetNanos : Long.MAX_VALUE);
+        searchNanos += TimeUtils.timeSinceNanos(start);
+    }
+
+    @Override
+    public boolean handleMessage(Telegram msg) {
+        TileRequest request = (TileRequest) msg.extraInfo;
+        pending.remove(request.key);
+        searchCount++;
+
+        DefaultGraphPath<Tile> path = (DefaultGraphPath<Tile>) request.resultPath;
+        if (request.version != version) {
+            pathPool.free(path);
+        } else {
+            if (!request.pathFound) path.clear();
+            if (cache.size >= MAX_CACHED_PATHS) clearCache();
+            cache.put(request.key, path);
+        }
+        requestPool.free(request);
+        return true;
+    }
+
+    private void clearCache() {
+        for (DefaultGraphPath<Tile> path : cache.values()) {
+            pathPool.free(path);
+        }
+        cache.clear();
+    }
+
+    private long key(Tile start, Tile goal) {
+        long startBucket = (start.row / bucketSize) * bucketColumns + start.column / bucketSize;
+        long goalBucket = (goal.row / bucketSize) * bucketColumns + goal.column / bucketSize;
+        return startBucket << 32 | goalBucket;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public TileGraph getGraph() {
+        return graph;
+    }
+
+    public int getQueuedCount() {
+        return pending.size;
+    }
+
+    public int getCachedCount() {
+        return cache.size;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getSearchCount() {
+        return searchCount;
+    }
+
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    static class TileRequest extends PathFinderRequest<Tile> implements Pool.Poolable {
+        long key;
+        int version;
+
+        @Override
+        public void reset() {
+            startNode = null;
+            endNode = null;
+            resultPath = null;
+            client = null;
+            pathFound = false;
+            executionFrames = 0;
+            status = SEARCH_NEW;
+            statusChanged = false;
+        }
+    }
+}
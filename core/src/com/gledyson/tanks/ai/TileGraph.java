@@ -0,0 +1,130 @@
+package com.gledyson.tanks.ai;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+// The NavigationGrid as a gdx-ai graph: one node per walkable tile, connected to its 8 neighbours.
+// Nodes and connections are built once and only rebuilt when the grid's version changes.
+public class TileGraph implements IndexedGraph<TileGraph.Tile> {
+    private static final float DIAGONAL_COST = 1.4142135f;
+
+    private final NavigationGrid grid;
+    private final Array<Tile> tiles;
+    private int builtVersion = -1;
+
+    public TileGraph(NavigationGrid grid) {
+        this.grid = grid;
+        this.tiles = new Array<>(grid.getCellCount());
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            tiles.add(new Tile(cell, grid.cellColumn(cell), grid.cellRow(cell)));
+        }
+        refresh();
+    }
+
+    // Rebuilds connections if the grid changed, returns true when it did
+    public boolean refresh() {
+        if (builtVersion == grid.getVersion()) return false;
+        builtVersion = grid.getVersion();
+
+        for (Tile tile : tiles) {
+            tile.connections.clear();
+            if (grid.isBlocked(tile.index)) continue;
+
+            for (int row = -1; row <= 1; row++) {
+                for (int column = -1; column <= 1; column++) {
+                    if (column == 0 && row == 0) continue;
+
+                    int toColumn = tile.column + column, toRow = tile.row + row;
+                    if (grid.isBlocked(toColumn, toRow)) continue;
+
+                    boolean diagonal = column != 0 && row != 0;
+                    // no cutting corners past a blocked tile
+                    if (diagonal && (grid.isBlocked(toColumn, tile.row) || grid.isBlocked(tile.column, toRow))) continue;
+
+                    tile.connections.add(new TileConnection(tile, tiles.get(grid.cell(toColumn, toRow)),
+                            diagonal ? DIAGONAL_COST : 1f));
+                }
+            }
+        }
+        return true;
+    }
+
+    public Tile getTile(float x, float y) {
+        return tiles.get(grid.cellAt(x, y));
+    }
+
+    public Tile getTile(int cell) {
+        return tiles.get(cell);
+    }
+
+    @Override
+    public int getIndex(Tile node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return tiles.size;
+    }
+
+    @Override
+    public Array<Connection<Tile>> getConnections(Tile fromNode) {
+        return fromNode.connections;
+    }
+
+    public NavigationGrid getGrid() {
+        return grid;
+    }
+
+    public static class Tile {
+        public final int index;
+        public final int column;
+        public final int row;
+        final Array<Connection<Tile>> connections = new Array<>(8);
+
+        Tile(int index, int column, int row) {
+            this.index = index;
+            this.column = column;
+            this.row = row;
+        }
+    }
+
+    static class TileConnection implements Connection<Tile> {
+        private final Tile from;
+        private final Tile to;
+        private final float cost;
+
+        TileConnection(Tile from, Tile to, float cost) {
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+
+        @Override
+        public Tile getFromNode() {
+            return from;
+        }
+
+        @Override
+        public Tile getToNode() {
+            return to;
+        }
+    }
+
+    // Octile distance, in the same units as the connection costs
+    public static class OctileHeuristic implements Heuristic<Tile> {
+        @Override
+        public float estimate(Tile node, Tile endNode) {
+            int dx = Math.abs(node.column - endNode.column);
+            int dy = Math.abs(node.row - endNode.row);
+            return Math.max(dx, dy) + (DIAGONAL_COST - 1f) * Math.min(dx, dy);
+        }
+    }
+}
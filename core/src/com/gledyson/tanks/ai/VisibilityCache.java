@@ -0,0 +1,97 @@
+package com.gledyson.tanks.ai;
+
+import java.util.Arrays;
+
+// Line of sight between tiles of the NavigationGrid, walked with a DDA raycast.
+// Results are cached per (from tile, to tile) pair in a direct-mapped table and the whole
+// cache is dropped when the grid's version changes.
+public class VisibilityCache {
+    private static final long EMPTY = -1L;
+
+    private final NavigationGrid grid;
+    private final int mask;
+    private final long[] keys;
+    private final boolean[] visible;
+    private int cachedVersion;
+
+    // Stats
+    private int queryCount;
+    private int hitCount;
+
+    // capacity is rounded up to a power of two
+    public VisibilityCache(NavigationGrid grid, int capacity) {
+        this.grid = grid;
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.visible = new boolean[size];
+        Arrays.fill(keys, EMPTY);
+        this.cachedVersion = grid.getVersion();
+    }
+
+    public boolean hasLineOfSight(float fromX, float fromY, float toX, float toY) {
+        if (cachedVersion != grid.getVersion()) {
+            Arrays.fill(keys, EMPTY);
+            cachedVersion = grid.getVersion();
+        }
+
+        int fromCell = grid.cellAt(fromX, fromY);
+        int toCell = grid.cellAt(toX, toY);
+        long key = (long) fromCell * grid.getCellCount() + toCell;
+        int slot = (int) (key ^ (key >>> 32)) * 0x9E3779B1 >>> 8 & mask;
+
+        queryCount++;
+        if (keys[slot] == key) {
+            hitCount++;
+            return visible[slot];
+        }
+
+        // cast between tile centers, so every point in the same pair of tiles shares the answer
+        boolean result = raycast(
+                grid.cellCenterX(grid.cellColumn(fromCell)), grid.cellCenterY(grid.cellRow(fromCell)),
+                grid.cellCenterX(grid.cellColumn(toCell)), grid.cellCenterY(grid.cellRow(toCell)));
+        keys[slot] = key;
+        visible[slot] = result;
+        return result;
+    }
+
+    // Walks every tile the segment crosses (Amanatides & Woo), false at the first blocked one
+    public boolean raycast(float fromX, float fromY, float toX, float toY) {
+        float cellSize = grid.getCellSize();
+        int column = grid.column(fromX), row = grid.row(fromY);
+        int endColumn = grid.column(toX), endRow = grid.row(toY);
+
+        float dx = toX - fromX, dy = toY - fromY;
+        int stepColumn = dx > 0 ? 1 : -1;
+        int stepRow = dy > 0 ? 1 : -1;
+
+        // distance along the segment (0..1) to the next tile border, and between borders
+        float deltaX = dx != 0 ? Math.abs(cellSize / dx) : Float.MAX_VALUE;
+        float deltaY = dy != 0 ? Math.abs(cellSize / dy) : Float.MAX_VALUE;
+        float nextX = dx != 0 ? ((dx > 0 ? (column + 1) * cellSize : column * cellSize) - fromX) / dx : Float.MAX_VALUE;
+        float nextY = dy != 0 ? ((dy > 0 ? (row + 1) * cellSize : row * cellSize) - fromY) / dy : Float.MAX_VALUE;
+
+        int maxSteps = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        for (int i = 0; i <= maxSteps; i++) {
+            if (grid.isBlocked(column, row)) return false;
+            if (column == endColumn && row == endRow) return true;
+
+            if (nextX < nextY) {
+                nextX += deltaX;
+                column += stepColumn;
+            } else {
+                nextY += deltaY;
+                row += stepRow;
+            }
+        }
+        return true;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+}
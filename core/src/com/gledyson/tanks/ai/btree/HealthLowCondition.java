@@ -0,0 +1,23 @@
+package com.gledyson.tanks.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.gledyson.tanks.objects.EnemyTank;
+
+// Succeeds when the tank has this much health or less
+public class HealthLowCondition extends LeafTask<EnemyTank> {
+    @TaskAttribute(required = true)
+    public int health;
+
+    @Override
+    public Status execute() {
+        return getObject().getHealth() <= health ? Status.SUCCEEDED : Status.FAILED;
+    }
+
+    @Override
+    protected Task<EnemyTank> copyTo(Task<EnemyTank> task) {
+        ((HealthLowCondition) task).health = health;
+        return task;
+    }
+}
@@ -0,0 +1,37 @@
+package com.gledyson.tanks.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.gledyson.tanks.objects.EnemyTank;
+
+// Switches the tank to one of its steering behaviours, the tank keeps it until the next decision
+public class SteerTask extends LeafTask<EnemyTank> {
+    @TaskAttribute(required = true)
+    public String behavior;
+
+    // behavior resolved to an EnemyTank index on first use
+    private int index = -1;
+
+    @Override
+    public Status execute() {
+        if (index < 0) index = indexOf(behavior);
+        getObject().selectBehavior(index);
+        return Status.SUCCEEDED;
+    }
+
+    private static int indexOf(String behavior) {
+        if ("chase".equals(behavior)) return EnemyTank.CHASE;
+        if ("arrive".equals(behavior)) return EnemyTank.ARRIVE;
+        if ("pursue".equals(behavior)) return EnemyTank.PURSUE;
+        if ("evade".equals(behavior)) return EnemyTank.EVADE;
+        throw new GdxRuntimeException("Unknown steering behavior: " + behavior);
+    }
+
+    @Override
+    protected Task<EnemyTank> copyTo(Task<EnemyTank> task) {
+        ((SteerTask) task).behavior = behavior;
+        return task;
+    }
+}
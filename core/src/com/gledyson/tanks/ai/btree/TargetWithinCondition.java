@@ -0,0 +1,29 @@
+package com.gledyson.tanks.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.annotation.TaskAttribute;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.objects.Tank;
+
+// Succeeds when the tank's target is alive and within distance
+public class TargetWithinCondition extends LeafTask<EnemyTank> {
+    @TaskAttribute(required = true)
+    public float distance;
+
+    @Override
+    public Status execute() {
+        EnemyTank tank = getObject();
+        Tank target = tank.getTargetTank();
+        if (target == null || target.isDead()) return Status.FAILED;
+
+        return tank.getPosition().dst2(target.getPosition()) <= distance * distance
+                ? Status.SUCCEEDED : Status.FAILED;
+    }
+
+    @Override
+    protected Task<EnemyTank> copyTo(Task<EnemyTank> task) {
+        ((TargetWithinCondition) task).distance = distance;
+        return task;
+    }
+}
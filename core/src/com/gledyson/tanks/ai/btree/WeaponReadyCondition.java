@@ -0,0 +1,18 @@
+package com.gledyson.tanks.ai.btree;
+
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.gledyson.tanks.objects.EnemyTank;
+
+// Succeeds when the gun has reloaded
+public class WeaponReadyCondition extends LeafTask<EnemyTank> {
+    @Override
+    public Status execute() {
+        return getObject().canFire() ? Status.SUCCEEDED : Status.FAILED;
+    }
+
+    @Override
+    protected Task<EnemyTank> copyTo(Task<EnemyTank> task) {
+        return task;
+    }
+}
@@ -0,0 +1,8 @@
+package com.gledyson.tanks.debug;
+
+// Bytes allocated so far by the calling thread. Only the JVM backends can tell
+// (see debug.jvm.ThreadAllocationCounter), so core code just gets handed one, or null.
+public interface AllocationCounter {
+    // Monotonic, only differences between two calls mean anything
+    long getAllocatedBytes();
+}
@@ -0,0 +1,342 @@
+package com.gledyson.tanks.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Times the phases of each frame and keeps the last `capacity` frames in a ring of primitive
+// arrays, together with the GL counters GLProfiler gathered over the frame.
+// Phases are opened and closed with begin/end, possibly several times a frame (one per
+// simulation step): the times add up until endFrame() records the frame.
+// Given an AllocationCounter it also records the bytes each frame and phase allocated, counts
+// the frames that went over an allocation threshold and keeps session totals for a report.
+// Does nothing while disabled, so the hooks can stay in place.
+public class FrameProfiler {
+    public static final int INPUT = 0;
+    public static final int AI = 1;
+    public static final int SHOTS = 2;
+    public static final int COLLISIONS = 3;
+    public static final int TRACKS = 4;
+    public static final int DRAW = 5;
+    public static final int CONTROLLER = 6;
+    public static final int SPAWN = 7; // waves placing enemies, bursts of hundreds of tanks at once
+    public static final int PHASE_COUNT = 8;
+
+    public static final int DRAW_CALLS = 0;
+    public static final int TEXTURE_BINDINGS = 1;
+    public static final int SHADER_SWITCHES = 2;
+    public static final int VERTICES = 3;
+    public static final int GL_COUNTER_COUNT = 4;
+
+    private static final String[] PHASE_NAMES = {
+            "input", "ai", "shots", "collisions", "tracks", "draw", "controller", "spawn"
+    };
+    private static final String[] GL_COUNTER_NAMES = {
+            "draw calls", "texture binds", "shader switches", "vertices"
+    };
+
+    private final int capacity;
+    // per recorded frame: frame time, then phase times in nanoseconds and GL counters
+    private final long[] frameNanos;
+    private final long[] phaseNanos; // frame * PHASE_COUNT + phase
+    private final int[] glCounters; // frame * GL_COUNTER_COUNT + counter
+    private final long[] frameBytes;
+    private final long[] phaseBytes; // frame * PHASE_COUNT + phase
+    private int head; // slot of the next frame
+    private int count;
+
+    // the frame being measured
+    private final long[] openedAt = new long[PHASE_COUNT];
+    private final long[] currentNanos = new long[PHASE_COUNT];
+    private final long[] openedBytes = new long[PHASE_COUNT];
+    private final long[] currentBytes = new long[PHASE_COUNT];
+    private long frameStartBytes;
+
+    // null when allocations aren't tracked
+    private AllocationCounter allocationCounter;
+    private long allocationThreshold;
+
+    // Session totals, since tracking started
+    private long sessionFrames;
+    private long sessionBytes;
+    private final long[] sessionPhaseBytes = new long[PHASE_COUNT];
+    private long framesOverThreshold;
+    private long maxFrameBytes;
+    private long maxFrameNumber;
+
+    // null without a GL context, e.g. on the headless backend
+    private GLProfiler glProfiler;
+    private boolean enabled;
+
+    public FrameProfiler(int capacity) {
+        this.capacity = capacity;
+        this.frameNanos = new long[capacity];
+        this.phaseNanos = new long[capacity * PHASE_COUNT];
+        this.glCounters = new int[capacity * GL_COUNTER_COUNT];
+        this.frameBytes = new long[capacity];
+        this.phaseBytes = new long[capacity * PHASE_COUNT];
+    }
+
+    // Frames allocating more than thresholdBytes are counted in the report
+    public void setAllocationCounter(AllocationCounter allocationCounter, long thresholdBytes) {
+        this.allocationCounter = allocationCounter;
+        this.allocationThreshold = thresholdBytes;
+        if (allocationCounter != null) {
+            frameStartBytes = allocationCounter.getAllocatedBytes();
+        }
+    }
+
+    // GL counters are only read when a profiler is given, it's enabled along with this one
+    public void setGLProfiler(GLProfiler glProfiler) {
+        this.glProfiler = glProfiler;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (glProfiler != null) {
+            if (enabled) {
+                glProfiler.enable();
+                glProfiler.reset();
+            } else {
+                glProfiler.disable();
+            }
+        }
+        discardFrame();
+    }
+
+    // Forgets what the current frame measured so far, e.g. after loading between two matches
+    public void discardFrame() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            currentNanos[phase] = 0;
+            currentBytes[phase] = 0;
+        }
+        if (enabled && allocationCounter != null) {
+            frameStartBytes = allocationCounter.getAllocatedBytes();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin(int phase) {
+        if (!enabled) return;
+        if (allocationCounter != null) {
+            openedBytes[phase] = allocationCounter.getAllocatedBytes();
+        }
+        openedAt[phase] = TimeUtils.nanoTime();
+    }
+
+    public void end(int phase) {
+        if (!enabled) return;
+        currentNanos[phase] += TimeUtils.nanoTime() - openedAt[phase];
+        if (allocationCounter != null) {
+            currentBytes[phase] += allocationCounter.getAllocatedBytes() - openedBytes[phase];
+        }
+    }
+
+    // Records the frame that just ended, deltaTime being its length in seconds
+    public void endFrame(float deltaTime) {
+        if (!enabled) return;
+
+        int slot = head;
+        head = (head + 1) % capacity;
+        if (count < capacity) count++;
+
+        frameNanos[slot] = (long) (deltaTime * 1e9);
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            phaseNanos[slot * PHASE_COUNT + phase] = currentNanos[phase];
+            phaseBytes[slot * PHASE_COUNT + phase] = currentBytes[phase];
+            sessionPhaseBytes[phase] += currentBytes[phase];
+            currentNanos[phase] = 0;
+            currentBytes[phase] = 0;
+        }
+
+        // the whole frame, including what happened outside the phases
+        long bytes = 0;
+        if (allocationCounter != null) {
+            long allocated = allocationCounter.getAllocatedBytes();
+            bytes = allocated - frameStartBytes;
+            frameStartBytes = allocated;
+        }
+        frameBytes[slot] = bytes;
+        sessionFrames++;
+        sessionBytes += bytes;
+        if (bytes > allocationThreshold) framesOverThreshold++;
+        if (bytes > maxFrameBytes) {
+            maxFrameBytes = bytes;
+            maxFrameNumber = sessionFrames;
+        }
+
+        int counters = slot * GL_COUNTER_COUNT;
+        if (glProfiler != null) {
+            glCounters[counters + DRAW_CALLS] = glProfiler.getDrawCalls();
+            glCounters[counters + TEXTURE_BINDINGS] = glProfiler.getTextureBindings();
+            glCounters[counters + SHADER_SWITCHES] = glProfiler.getShaderSwitches();
+            glCounters[counters + VERTICES] = (int) glProfiler.getVertexCount().total;
+            glProfiler.reset();
+        } else {
+            for (int counter = 0; counter < GL_COUNTER_COUNT; counter++) {
+                glCounters[counters + counter] = 0;
+            }
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        sessionFrames = 0;
+        sessionBytes = 0;
+        framesOverThreshold = 0;
+        maxFrameBytes = 0;
+        maxFrameNumber = 0;
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            sessionPhaseBytes[phase] = 0;
+        }
+    }
+
+    // Allocation summary of the whole session, for the log. Allocates, so call it at the end.
+    public String getAllocationReport() {
+        if (allocationCounter == null) return "Allocations not tracked";
+
+        long frames = Math.max(1, sessionFrames);
+        java.lang.StringBuilder report = new java.lang.StringBuilder();
+        report.append(sessionFrames).append(" frames, ")
+                .append(sessionBytes / 1024).append(" KB allocated, ")
+                .append(sessionBytes / frames).append(" B/frame on average\n");
+        report.append("largest frame: ").append(maxFrameBytes).append(" B (frame ").append(maxFrameNumber).append(")\n");
+        report.append("frames over ").append(allocationThreshold).append(" B: ").append(framesOverThreshold)
+                .append(" (").append(framesOverThreshold * 100 / frames).append("%)\n");
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            report.append("  ").append(PHASE_NAMES[phase]).append(' ')
+                    .append(sessionPhaseBytes[phase] / frames).append(" B/frame\n");
+        }
+        return report.toString();
+    }
+
+    // Writes every recorded frame, oldest first, one row per frame. Times are in microseconds.
+    public void exportCsv(FileHandle file) {
+        Writer writer = null;
+        try {
+            writer = file.writer(false, "UTF-8");
+            writer.write("frame_us");
+            for (String name : PHASE_NAMES) {
+                writer.write(',');
+                writer.write(name.replace(' ', '_') + "_us");
+            }
+            for (String name : GL_COUNTER_NAMES) {
+                writer.write(',');
+                writer.write(name.replace(' ', '_'));
+            }
+            writer.write(",frame_bytes");
+            for (String name : PHASE_NAMES) {
+                writer.write(',');
+                writer.write(name + "_bytes");
+            }
+            writer.write('\n');
+
+            for (int i = 0; i < count; i++) {
+                writer.write(Long.toString(getFrameNanos(i) / 1000));
+                for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                    writer.write(',');
+                    writer.write(Long.toString(getPhaseNanos(i, phase) / 1000));
+                }
+                for (int counter = 0; counter < GL_COUNTER_COUNT; counter++) {
+                    writer.write(',');
+                    writer.write(Integer.toString(getGLCounter(i, counter)));
+                }
+                writer.write(',');
+                writer.write(Long.toString(getFrameBytes(i)));
+                for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                    writer.write(',');
+                    writer.write(Long.toString(getPhaseBytes(i, phase)));
+                }
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write profile to " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(writer);
+        }
+        Gdx.app.log("FrameProfiler", count + " frames written to " + file.path());
+    }
+
+    // average of the phase over the recorded frames
+    public long getAveragePhaseNanos(int phase) {
+        if (count == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += getPhaseNanos(i, phase);
+        }
+        return total / count;
+    }
+
+    public long getAverageFrameNanos() {
+        if (count == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += getFrameNanos(i);
+        }
+        return total / count;
+    }
+
+    // i = 0 is the oldest recorded frame
+    public long getFrameNanos(int i) {
+        return frameNanos[slotAt(i)];
+    }
+
+    public long getPhaseNanos(int i, int phase) {
+        return phaseNanos[slotAt(i) * PHASE_COUNT + phase];
+    }
+
+    public long getFrameBytes(int i) {
+        return frameBytes[slotAt(i)];
+    }
+
+    public long getPhaseBytes(int i, int phase) {
+        return phaseBytes[slotAt(i) * PHASE_COUNT + phase];
+    }
+
+    public long getFramesOverThreshold() {
+        return framesOverThreshold;
+    }
+
+    public boolean isTrackingAllocations() {
+        return allocationCounter != null;
+    }
+
+    public int getGLCounter(int i, int counter) {
+        return glCounters[slotAt(i) * GL_COUNTER_COUNT + counter];
+    }
+
+    // counters of the newest recorded frame
+    public int getLastGLCounter(int counter) {
+        return count == 0 ? 0 : getGLCounter(count - 1, counter);
+    }
+
+    private int slotAt(int i) {
+        return (head - count + i + capacity) % capacity;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    public static String getGLCounterName(int counter) {
+        return GL_COUNTER_NAMES[counter];
+    }
+}
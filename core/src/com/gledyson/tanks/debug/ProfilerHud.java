@@ -0,0 +1,58 @@
+package com.gledyson.tanks.debug;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.StringBuilder;
+
+// Text overlay for a FrameProfiler: average time per phase over the recorded frames, the
+// bytes each phase allocated in the last frame when allocations are tracked, and the GL
+// counters of the last one. Lines are built in one reused StringBuilder and numbers
+// are formatted by hand, so drawing it every frame doesn't allocate.
+public class ProfilerHud {
+    private final FrameProfiler profiler;
+    private final BitmapFont font;
+    private final StringBuilder text = new StringBuilder(64);
+
+    public ProfilerHud(FrameProfiler profiler, BitmapFont font) {
+        this.profiler = profiler;
+        this.font = font;
+    }
+
+    // Draws from (x, y) downwards, between batch.begin() and end()
+    public void draw(Batch batch, float x, float y) {
+        float lineHeight = font.getLineHeight();
+
+        text.setLength(0);
+        text.append("frame ");
+        appendMillis(profiler.getAverageFrameNanos());
+        text.append(" ms, avg of ").append(profiler.getCount());
+        font.draw(batch, text, x, y);
+        y -= lineHeight;
+
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+            text.setLength(0);
+            text.append(FrameProfiler.getPhaseName(phase)).append(' ');
+            appendMillis(profiler.getAveragePhaseNanos(phase));
+            text.append(" ms");
+            if (profiler.isTrackingAllocations() && profiler.getCount() > 0) {
+                text.append(", ").append(profiler.getPhaseBytes(profiler.getCount() - 1, phase)).append(" B");
+            }
+            font.draw(batch, text, x, y);
+            y -= lineHeight;
+        }
+
+        for (int counter = 0; counter < FrameProfiler.GL_COUNTER_COUNT; counter++) {
+            text.setLength(0);
+            text.append(FrameProfiler.getGLCounterName(counter)).append(' ')
+                    .append(profiler.getLastGLCounter(counter));
+            font.draw(batch, text, x, y);
+            y -= lineHeight;
+        }
+    }
+
+    // two decimals, without going through Float.toString
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10000;
+        text.append((int) (hundredths / 100)).append('.').append((int) (hundredths % 100), 2, '0');
+    }
+}
@@ -0,0 +1,48 @@
+package com.gledyson.tanks.debug.jvm;
+
+import com.gledyson.tanks.debug.AllocationCounter;
+
+import java.lang.management.ManagementFactory;
+
+// AllocationCounter for desktop and headless, from HotSpot's per-thread allocation counters.
+// Reading the counter allocates a little by itself on some JDKs: that cost is measured once
+// and taken back out of every reading, so a phase that allocates nothing reads as 0.
+// Not available on Android or GWT, the GWT module excludes this package.
+public class ThreadAllocationCounter implements AllocationCounter {
+    private static final int CALIBRATION_READS = 64;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+    private final long readCost;
+    private long reads;
+
+    // Counts for the thread that creates it
+    public ThreadAllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("Thread allocation counters aren't available on this JVM");
+        }
+        threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation counters aren't supported on this JVM");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threadId = Thread.currentThread().getId();
+
+        long first = threads.getThreadAllocatedBytes(threadId);
+        long last = first;
+        for (int i = 0; i < CALIBRATION_READS; i++) {
+            last = threads.getThreadAllocatedBytes(threadId);
+        }
+        readCost = (last - first) / CALIBRATION_READS;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return threads.getThreadAllocatedBytes(threadId) - readCost * reads++;
+    }
+
+    public long getReadCost() {
+        return readCost;
+    }
+}
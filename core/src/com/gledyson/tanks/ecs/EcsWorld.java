@@ -0,0 +1,286 @@
+package com.gledyson.tanks.ecs;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.PlayerControlComponent;
+import com.gledyson.tanks.ecs.components.SpriteComponent;
+import com.gledyson.tanks.ecs.components.SteeringComponent;
+import com.gledyson.tanks.ecs.components.TeamComponent;
+import com.gledyson.tanks.ecs.components.TrackEmitterComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.ecs.components.WeaponComponent;
+import com.gledyson.tanks.ecs.systems.PlayerControlSystem;
+import com.gledyson.tanks.ecs.systems.ProjectileSystem;
+import com.gledyson.tanks.ecs.systems.RenderSystem;
+import com.gledyson.tanks.ecs.systems.SpatialIndexSystem;
+import com.gledyson.tanks.ecs.systems.SteeringSystem;
+import com.gledyson.tanks.ecs.systems.TrackEmitterSystem;
+import com.gledyson.tanks.ecs.systems.TransformHistorySystem;
+import com.gledyson.tanks.ecs.systems.WeaponSystem;
+import com.gledyson.tanks.effects.EffectsManager;
+import com.gledyson.tanks.effects.TrackDecalLayer;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.SteerableObject;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.world.BotInput;
+import com.gledyson.tanks.world.PlayerInput;
+
+// A match run as Ashley entities and systems instead of the Tank hierarchy, meant to take over
+// from GameWorld once it does everything GameWorld does. Systems call the same rule code as
+// GameWorld (PlayerInput driving, Tank.damageAfterArmor, ShotSweep, gdx-ai behaviours) rather
+// than copies of it. Not there yet: enemies Arrive straight at the player and fire whenever
+// reloaded, with no flow field, crowd steering, behavior tree, AI scheduling, fire control,
+// waves, snapshots or replays, so matches still play differently from GameWorld's.
+// Unit types are plain component sets built from TankFactory's tanks, so adding one means new
+// data, not a new subclass. Systems run in priority order and time themselves (see TimedSystem).
+public class EcsWorld {
+    // system order, lower runs first
+    public static final int PRIORITY_HISTORY = 0;
+    public static final int PRIORITY_SPATIAL_INDEX = 10;
+    public static final int PRIORITY_PLAYER_CONTROL = 20;
+    public static final int PRIORITY_STEERING = 30;
+    public static final int PRIORITY_WEAPONS = 40;
+    public static final int PRIORITY_TRACKS = 50;
+    public static final int PRIORITY_PROJECTILES = 60;
+    public static final int PRIORITY_RENDER = 100;
+
+    private static final int SHOT_BOUNDS_THRESHOLD = 64;
+    private static final float GRID_CELL_SIZE = 64;
+
+    private final float width;
+    private final float height;
+    private final Engine engine;
+    private final Projectiles projectiles;
+
+    private final Array<Entity> tanks; // indexed by TeamComponent.id
+    private final Array<Entity> enemies;
+    private final Entity player;
+    private final TransformLocation playerLocation;
+
+    private final WeaponSystem weaponSystem;
+    private final TrackEmitterSystem trackEmitterSystem;
+    private final ProjectileSystem projectileSystem;
+    private RenderSystem renderSystem;
+
+    private float elapsedTime;
+
+    public EcsWorld(float width, float height, TankFactory tankFactory) {
+        this.width = width;
+        this.height = height;
+        this.engine = new Engine();
+        this.projectiles = new Projectiles();
+        this.tanks = new Array<>();
+        this.enemies = new Array<>();
+
+        SpatialIndexSystem spatialIndex = new SpatialIndexSystem(PRIORITY_SPATIAL_INDEX, tanks,
+                -SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD,
+                width + 2 * SHOT_BOUNDS_THRESHOLD, height + 2 * SHOT_BOUNDS_THRESHOLD,
+                GRID_CELL_SIZE);
+        weaponSystem = new WeaponSystem(PRIORITY_WEAPONS, projectiles);
+        trackEmitterSystem = new TrackEmitterSystem(PRIORITY_TRACKS);
+        projectileSystem = new ProjectileSystem(PRIORITY_PROJECTILES, projectiles, spatialIndex, tanks,
+                -SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD,
+                width + SHOT_BOUNDS_THRESHOLD, height + SHOT_BOUNDS_THRESHOLD);
+
+        engine.addSystem(new TransformHistorySystem(PRIORITY_HISTORY));
+        engine.addSystem(spatialIndex);
+        engine.addSystem(new PlayerControlSystem(PRIORITY_PLAYER_CONTROL, spatialIndex, width, height));
+        engine.addSystem(new SteeringSystem(PRIORITY_STEERING));
+        engine.addSystem(weaponSystem);
+        engine.addSystem(trackEmitterSystem);
+        engine.addSystem(projectileSystem);
+
+        player = addPlayer(tankFactory.createPlayerTank(width / 2f, height / 4f, 180));
+        playerLocation = new TransformLocation(Mappers.transform.get(player));
+    }
+
+    public void spawnDefaultEnemies(TankFactory tankFactory) {
+        spawnEnemy(tankFactory, width / 2f, 3 * height / 4f, 23f);
+        spawnEnemy(tankFactory, 100, 3 * height / 4f, 9f);
+        spawnEnemy(tankFactory, 410, 3 * height / 4f, 0f);
+    }
+
+    public Entity spawnEnemy(TankFactory tankFactory, float centerX, float centerY, float angle) {
+        Tank template = tankFactory.createEnemyTank(centerX, centerY, angle, null);
+        Entity enemy = createTank(template, Tank.TEAM_ENEMY);
+
+        SteerableObject agent = new SteerableObject(new Rectangle(template.getBoundingBox()), template.getOrientation());
+        agent.setMaxLinearSpeed(template.getMaxLinearSpeed());
+        agent.setMaxLinearAcceleration(template.getMaxLinearAcceleration());
+
+        SteeringComponent steering = new SteeringComponent();
+        steering.agent = agent;
+        steering.behavior = new Arrive<>(agent, playerLocation);
+        enemy.add(steering);
+
+        Mappers.weapon.get(enemy).automatic = true;
+
+        enemies.add(enemy);
+        engine.addEntity(enemy);
+        return enemy;
+    }
+
+    private Entity addPlayer(Tank template) {
+        Entity entity = createTank(template, Tank.TEAM_PLAYER);
+
+        PlayerControlComponent control = new PlayerControlComponent();
+        control.speed = template.getSpeed();
+        control.reverseSpeed = template.getReverseSpeed();
+        control.rotationSpeed = template.getRotationSpeed();
+        entity.add(control);
+
+        TrackEmitterComponent emitter = new TrackEmitterComponent();
+        emitter.texture = template.getTracksTexture();
+        emitter.forwardInterval = template.getTrackInterval(false);
+        emitter.reverseInterval = template.getTrackInterval(true);
+        entity.add(emitter);
+
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    // The components every tank has, copied from a tank built by TankFactory
+    private Entity createTank(Tank template, int team) {
+        Entity entity = new Entity();
+
+        TransformComponent transform = new TransformComponent();
+        transform.x = transform.previousX = template.getPositionX();
+        transform.y = transform.previousY = template.getPositionY();
+        transform.width = template.getWidth();
+        transform.height = template.getHeight();
+        transform.orientation = transform.previousOrientation = template.getOrientation();
+        entity.add(transform);
+
+        SpriteComponent sprite = new SpriteComponent();
+        sprite.region = template.getTankTexture();
+        sprite.destroyedRegion = template.getTankDestroyedTexture();
+        entity.add(sprite);
+
+        WeaponComponent weapon = new WeaponComponent();
+        weapon.shotWidth = template.getShotWidth();
+        weapon.shotHeight = template.getShotHeight();
+        weapon.shotSpeed = template.getShotSpeed();
+        weapon.shotRate = template.getShotRate();
+        weapon.damage = template.getShotDamage();
+        weapon.shotTexture = template.getShotTexture();
+        entity.add(weapon);
+
+        HealthComponent health = new HealthComponent();
+        health.health = template.getHealth();
+        health.armor = template.getArmor();
+        entity.add(health);
+
+        TeamComponent teamComponent = new TeamComponent();
+        teamComponent.id = tanks.size;
+        teamComponent.team = team;
+        entity.add(teamComponent);
+
+        tanks.add(entity);
+        return entity;
+    }
+
+    public void step(float delta, int input) {
+        elapsedTime += delta;
+        Mappers.playerControl.get(player).input = input;
+        engine.update(delta);
+    }
+
+    // BotInput's rules for the player entity
+    public int pollBot() {
+        if (isPlayerDefeated()) return PlayerInput.NONE;
+
+        TransformComponent transform = Mappers.transform.get(player);
+        TransformComponent closest = null;
+        float closestDistance = Float.MAX_VALUE;
+        for (Entity enemy : enemies) {
+            if (Mappers.health.get(enemy).dead) continue;
+
+            TransformComponent other = Mappers.transform.get(enemy);
+            float dx = other.x - transform.x;
+            float dy = other.y - transform.y;
+            float distance = dx * dx + dy * dy;
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = other;
+            }
+        }
+        if (closest == null) return PlayerInput.NONE;
+
+        return BotInput.engage(transform.x, transform.y, transform.orientation, closest.x, closest.y);
+    }
+
+    // Drawing is optional: without these the world runs headless
+    public void enableRendering(SpriteBatch batch, TrackDecalLayer decals, EffectsManager effects) {
+        if (renderSystem == null) {
+            renderSystem = new RenderSystem(PRIORITY_RENDER, batch, projectiles, tanks);
+            engine.addSystem(renderSystem);
+        }
+        trackEmitterSystem.setDecals(decals);
+        projectileSystem.setEffects(effects);
+    }
+
+    // between batch.begin() and end()
+    public void draw(float alpha) {
+        if (renderSystem != null) {
+            renderSystem.draw(alpha);
+        }
+    }
+
+    // whether the player's tank moved in the last step
+    public boolean hasPlayerMoved() {
+        TransformComponent transform = Mappers.transform.get(player);
+        return transform.x != transform.previousX || transform.y != transform.previousY;
+    }
+
+    public boolean isPlayerDefeated() {
+        return Mappers.health.get(player).dead;
+    }
+
+    public boolean areEnemiesDefeated() {
+        for (Entity enemy : enemies) {
+            if (!Mappers.health.get(enemy).dead) return false;
+        }
+        return true;
+    }
+
+    public ImmutableArray<EntitySystem> getSystems() {
+        return engine.getSystems();
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public Entity getPlayer() {
+        return player;
+    }
+
+    public Array<Entity> getTanks() {
+        return tanks;
+    }
+
+    public Projectiles getProjectiles() {
+        return projectiles;
+    }
+
+    public int getShotsFired() {
+        return weaponSystem.getShotsFired();
+    }
+
+    public int getHits() {
+        return projectileSystem.getHits();
+    }
+
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+}
@@ -0,0 +1,49 @@
+package com.gledyson.tanks.ecs;
+
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.Vector2;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+
+// An entity's transform as a gdx-ai steering target, read live every time a behaviour asks
+public class TransformLocation implements Location<Vector2> {
+    private final TransformComponent transform;
+    private final Vector2 position = new Vector2();
+
+    public TransformLocation(TransformComponent transform) {
+        this.transform = transform;
+    }
+
+    // bottom-left corner, the same point Tank positions use
+    @Override
+    public Vector2 getPosition() {
+        return position.set(transform.x, transform.y);
+    }
+
+    @Override
+    public float getOrientation() {
+        return transform.orientation;
+    }
+
+    @Override
+    public void setOrientation(float orientation) {
+        transform.orientation = orientation;
+    }
+
+    // same angle convention as SteerableObject
+    @Override
+    public float vectorToAngle(Vector2 vector) {
+        return (float) Math.atan2(-vector.x, vector.y);
+    }
+
+    @Override
+    public Vector2 angleToVector(Vector2 outVector, float angle) {
+        outVector.x = -(float) Math.sin(angle);
+        outVector.y = (float) Math.cos(angle);
+        return outVector;
+    }
+
+    @Override
+    public Location<Vector2> newLocation() {
+        return new TransformLocation(new TransformComponent());
+    }
+}
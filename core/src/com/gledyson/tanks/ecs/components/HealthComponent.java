@@ -0,0 +1,9 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class HealthComponent implements Component {
+    public int health;
+    public int armor; // subtracted from every hit
+    public boolean dead;
+}
@@ -0,0 +1,18 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+// One mapper per component type, shared by every system
+public final class Mappers {
+    public static final ComponentMapper<TransformComponent> transform = ComponentMapper.getFor(TransformComponent.class);
+    public static final ComponentMapper<SpriteComponent> sprite = ComponentMapper.getFor(SpriteComponent.class);
+    public static final ComponentMapper<WeaponComponent> weapon = ComponentMapper.getFor(WeaponComponent.class);
+    public static final ComponentMapper<HealthComponent> health = ComponentMapper.getFor(HealthComponent.class);
+    public static final ComponentMapper<SteeringComponent> steering = ComponentMapper.getFor(SteeringComponent.class);
+    public static final ComponentMapper<TrackEmitterComponent> trackEmitter = ComponentMapper.getFor(TrackEmitterComponent.class);
+    public static final ComponentMapper<TeamComponent> team = ComponentMapper.getFor(TeamComponent.class);
+    public static final ComponentMapper<PlayerControlComponent> playerControl = ComponentMapper.getFor(PlayerControlComponent.class);
+
+    private Mappers() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+
+// Driven by PlayerInput bits instead of steering
+public class PlayerControlComponent implements Component {
+    public int input;
+    public float speed;
+    public float reverseSpeed;
+    public float rotationSpeed; // degrees per second
+}
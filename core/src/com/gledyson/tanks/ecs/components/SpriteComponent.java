@@ -0,0 +1,10 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+public class SpriteComponent implements Component {
+    public TextureRegion region;
+    // drawn instead of region once the entity is dead, optional
+    public TextureRegion destroyedRegion;
+}
@@ -0,0 +1,13 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.math.Vector2;
+import com.gledyson.tanks.objects.SteerableObject;
+
+// A gdx-ai behaviour driving the entity. The agent is what the behaviour steers, SteeringSystem
+// copies the transform into it before the step and back out after.
+public class SteeringComponent implements Component {
+    public SteerableObject agent;
+    public SteeringBehavior<Vector2> behavior;
+}
@@ -0,0 +1,8 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class TeamComponent implements Component {
+    public int id; // index in EcsWorld's tank list, also used as the shot owner
+    public int team;
+}
@@ -0,0 +1,15 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.gledyson.tanks.effects.TrackTrail;
+
+public class TrackEmitterComponent implements Component {
+    public final TrackTrail trail = new TrackTrail();
+    public TextureRegion texture;
+
+    // seconds between prints when driving forward / in reverse
+    public float forwardInterval;
+    public float reverseInterval;
+    public float timeSinceLastPrint;
+}
@@ -0,0 +1,18 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+import com.gledyson.tanks.physics.OrientedBox;
+
+public class TransformComponent implements Component {
+    // bottom-left corner, like BaseEntity
+    public float x, y;
+    public float width, height;
+    public float orientation; // radians
+
+    // last step's state, for interpolated drawing
+    public float previousX, previousY;
+    public float previousOrientation;
+
+    // rotated collision box, refreshed by SpatialIndexSystem
+    public final OrientedBox box = new OrientedBox();
+}
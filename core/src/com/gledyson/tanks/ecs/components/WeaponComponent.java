@@ -0,0 +1,18 @@
+package com.gledyson.tanks.ecs.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+public class WeaponComponent implements Component {
+    public float shotWidth, shotHeight;
+    public float shotSpeed;
+    public float shotRate; // seconds between shots
+    public int damage;
+    public TextureRegion shotTexture;
+
+    public float timeSinceLastShot;
+
+    // fires whenever ready (AI), otherwise only while the trigger is held
+    public boolean automatic;
+    public boolean trigger;
+}
@@ -0,0 +1,55 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.MathUtils;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.PlayerControlComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.ecs.components.WeaponComponent;
+import com.gledyson.tanks.world.PlayerInput;
+
+// GameWorld's player driving rules (PlayerInput.turn and speed): turn, drive unless blocked, stay inside the world
+public class PlayerControlSystem extends TimedIteratingSystem {
+    private final SpatialIndexSystem spatialIndex;
+    private final float worldWidth;
+    private final float worldHeight;
+
+    public PlayerControlSystem(int priority, SpatialIndexSystem spatialIndex, float worldWidth, float worldHeight) {
+        super(Family.all(TransformComponent.class, PlayerControlComponent.class, HealthComponent.class).get(), priority);
+        this.spatialIndex = spatialIndex;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        PlayerControlComponent control = Mappers.playerControl.get(entity);
+        WeaponComponent weapon = Mappers.weapon.get(entity);
+        int input = control.input;
+
+        if (weapon != null) {
+            weapon.trigger = PlayerInput.isSet(input, PlayerInput.FIRE);
+        }
+        if (Mappers.health.get(entity).dead) return;
+
+        transform.orientation = PlayerInput.turn(input, transform.orientation, control.rotationSpeed, deltaTime);
+
+        float speed = PlayerInput.speed(input, control.speed, control.reverseSpeed);
+        if (speed != 0) {
+            float degrees = transform.orientation * MathUtils.radiansToDegrees;
+            float newX = transform.x - speed * MathUtils.sinDeg(-degrees) * deltaTime;
+            float newY = transform.y - speed * MathUtils.cosDeg(-degrees) * deltaTime;
+
+            if (!spatialIndex.isBlocked(entity, newX, newY)) {
+                transform.x = newX;
+                transform.y = newY;
+            }
+        }
+
+        transform.x = MathUtils.clamp(transform.x, 0, worldWidth - transform.width);
+        transform.y = MathUtils.clamp(transform.y, 0, worldHeight - transform.width);
+    }
+}
@@ -0,0 +1,104 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.effects.EffectType;
+import com.gledyson.tanks.effects.EffectsManager;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.physics.ShotSweep;
+
+// Moves shells and applies hits, with the same ShotSweep test and armor rule (Tank.damageAfterArmor) as GameWorld
+public class ProjectileSystem extends TimedEntitySystem {
+    private final Projectiles projectiles;
+    private final SpatialIndexSystem spatialIndex;
+    private final Array<Entity> tanks;
+    private final float minX, minY, maxX, maxY;
+    private final IntArray candidates;
+    private final ShotSweep shotSweep;
+
+    // optional, null when nothing is drawn
+    private EffectsManager effects;
+
+    private int hits;
+    private int kills;
+
+    public ProjectileSystem(int priority, Projectiles projectiles, SpatialIndexSystem spatialIndex, Array<Entity> tanks,
+                            float minX, float minY, float maxX, float maxY) {
+        super(priority);
+        this.projectiles = projectiles;
+        this.spatialIndex = spatialIndex;
+        this.tanks = tanks;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.candidates = new IntArray();
+        this.shotSweep = new ShotSweep();
+    }
+
+    @Override
+    protected void process(float deltaTime) {
+        // tanks moved since the index was built
+        spatialIndex.rebuild();
+
+        projectiles.integrate(deltaTime, minX, minY, maxX, maxY);
+
+        for (int shot = projectiles.getCount() - 1; shot >= 0; shot--) {
+            shotSweep.set(projectiles, shot);
+
+            candidates.clear();
+            spatialIndex.query(shotSweep.getMinX(), shotSweep.getMinY(), shotSweep.getMaxX(), shotSweep.getMaxY(), candidates);
+
+            Entity hitTank = null;
+            for (int i = 0; i < candidates.size; i++) {
+                Entity tank = tanks.get(candidates.get(i));
+                if (Mappers.team.get(tank).team == projectiles.getTeam(shot)) continue;
+
+                if (shotSweep.offer(Mappers.transform.get(tank).box)) {
+                    hitTank = tank;
+                }
+            }
+
+            if (hitTank != null) {
+                hit(shot, hitTank, shotSweep.getHitX(), shotSweep.getHitY());
+            }
+        }
+    }
+
+    private void hit(int shot, Entity tank, float hitX, float hitY) {
+        HealthComponent health = Mappers.health.get(tank);
+        if (!health.dead) {
+            hits++;
+            health.health -= Tank.damageAfterArmor(projectiles.getDamage(shot), health.armor);
+
+            if (health.health <= 0) {
+                health.dead = true;
+                kills++;
+                if (effects != null) {
+                    TransformComponent transform = Mappers.transform.get(tank);
+                    effects.spawn(EffectType.EXPLOSION, transform.x, transform.y);
+                }
+            } else if (effects != null) {
+                effects.spawn(EffectType.SMOKE_EXPLOSION, hitX, hitY);
+            }
+        }
+        projectiles.remove(shot);
+    }
+
+    public void setEffects(EffectsManager effects) {
+        this.effects = effects;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+}
@@ -0,0 +1,75 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.SpriteComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.objects.Projectiles;
+
+// Draws sprites and shells. Not run by Engine.update(), the screen calls draw() once per frame
+// between batch.begin() and end(), with the interpolation alpha.
+public class RenderSystem extends TimedIteratingSystem {
+    private final SpriteBatch batch;
+    private final Projectiles projectiles;
+    private final Array<Entity> tanks;
+    private float alpha;
+
+    public RenderSystem(int priority, SpriteBatch batch, Projectiles projectiles, Array<Entity> tanks) {
+        super(Family.all(TransformComponent.class, SpriteComponent.class).get(), priority);
+        this.batch = batch;
+        this.projectiles = projectiles;
+        this.tanks = tanks;
+        setProcessing(false);
+    }
+
+    public void draw(float alpha) {
+        this.alpha = alpha;
+        update(0f);
+        drawShots();
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        SpriteComponent sprite = Mappers.sprite.get(entity);
+        HealthComponent health = Mappers.health.get(entity);
+
+        TextureRegion region = sprite.region;
+        if (health != null && health.dead && sprite.destroyedRegion != null) {
+            region = sprite.destroyedRegion;
+        }
+        if (region == null) return;
+
+        batch.draw(region,
+                transform.previousX + (transform.x - transform.previousX) * alpha,
+                transform.previousY + (transform.y - transform.previousY) * alpha,
+                transform.width / 2, transform.height / 2,
+                transform.width, transform.height,
+                1, 1,
+                MathUtils.lerpAngle(transform.previousOrientation, transform.orientation, alpha) * MathUtils.radiansToDegrees
+        );
+    }
+
+    private void drawShots() {
+        for (int i = 0; i < projectiles.getCount(); i++) {
+            TextureRegion shotTexture = Mappers.weapon.get(tanks.get(projectiles.getOwner(i))).shotTexture;
+            if (shotTexture == null) continue;
+
+            float width = projectiles.getWidth(i);
+            float height = projectiles.getHeight(i);
+            batch.draw(shotTexture,
+                    projectiles.getInterpolatedX(i, alpha), projectiles.getInterpolatedY(i, alpha),
+                    width / 2, height / 2,
+                    width, height,
+                    1, 1,
+                    projectiles.getAngle(i)
+            );
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.physics.OrientedBox;
+import com.gledyson.tanks.physics.SpatialGrid;
+
+// Refreshes every tank's oriented box and puts it in the grid. Items are tank ids.
+// Other systems call rebuild() again after they moved tanks.
+public class SpatialIndexSystem extends TimedEntitySystem {
+    private final Array<Entity> tanks;
+    private final SpatialGrid grid;
+    private final OrientedBox probe;
+    private final IntArray candidates;
+
+    public SpatialIndexSystem(int priority, Array<Entity> tanks,
+                              float originX, float originY, float width, float height, float cellSize) {
+        super(priority);
+        this.tanks = tanks;
+        this.grid = new SpatialGrid(originX, originY, width, height, cellSize);
+        this.probe = new OrientedBox();
+        this.candidates = new IntArray();
+    }
+
+    @Override
+    protected void process(float deltaTime) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        grid.clear();
+        for (int id = 0; id < tanks.size; id++) {
+            TransformComponent transform = Mappers.transform.get(tanks.get(id));
+            OrientedBox box = transform.box.set(
+                    transform.x + transform.width / 2, transform.y + transform.height / 2,
+                    transform.width / 2, transform.height / 2,
+                    transform.orientation);
+            grid.insert(id, box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+        }
+    }
+
+    // Would the tank overlap another one with its corner at x, y
+    public boolean isBlocked(Entity tank, float x, float y) {
+        TransformComponent transform = Mappers.transform.get(tank);
+        probe.set(x + transform.width / 2, y + transform.height / 2,
+                transform.width / 2, transform.height / 2,
+                transform.orientation);
+
+        candidates.clear();
+        grid.query(probe.getMinX(), probe.getMinY(), probe.getMaxX(), probe.getMaxY(), candidates);
+
+        for (int i = 0; i < candidates.size; i++) {
+            Entity other = tanks.get(candidates.get(i));
+            if (other != tank && probe.overlaps(Mappers.transform.get(other).box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int query(float minX, float minY, float maxX, float maxY, IntArray out) {
+        return grid.query(minX, minY, maxX, maxY, out);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.math.Vector2;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.SteeringComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.objects.SteerableObject;
+
+// Runs each entity's gdx-ai behaviour and moves it with SteerableObject.applySteering, like EnemyTank.update
+public class SteeringSystem extends TimedIteratingSystem {
+    private final SteeringAcceleration<Vector2> steeringOutput = new SteeringAcceleration<>(new Vector2());
+
+    public SteeringSystem(int priority) {
+        super(Family.all(TransformComponent.class, SteeringComponent.class, HealthComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        if (Mappers.health.get(entity).dead) return;
+
+        TransformComponent transform = Mappers.transform.get(entity);
+        SteeringComponent steering = Mappers.steering.get(entity);
+        if (steering.behavior == null) return;
+
+        // the transform stays the entity's state, other systems may have moved it
+        SteerableObject agent = steering.agent;
+        agent.setPositionX(transform.x);
+        agent.setPositionY(transform.y);
+        agent.setOrientation(transform.orientation);
+
+        steering.behavior.calculateSteering(steeringOutput);
+        agent.applySteering(steeringOutput, deltaTime);
+
+        transform.x = agent.getPositionX();
+        transform.y = agent.getPositionY();
+        transform.orientation = agent.getOrientation();
+    }
+}
@@ -0,0 +1,31 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.TimeUtils;
+
+public abstract class TimedEntitySystem extends EntitySystem implements TimedSystem {
+    private long nanos;
+
+    public TimedEntitySystem(int priority) {
+        super(priority);
+    }
+
+    @Override
+    public final void update(float deltaTime) {
+        long start = TimeUtils.nanoTime();
+        process(deltaTime);
+        nanos += TimeUtils.timeSinceNanos(start);
+    }
+
+    protected abstract void process(float deltaTime);
+
+    @Override
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public void resetNanos() {
+        nanos = 0;
+    }
+}
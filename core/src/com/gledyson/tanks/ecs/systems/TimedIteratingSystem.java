@@ -0,0 +1,30 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.utils.TimeUtils;
+
+public abstract class TimedIteratingSystem extends IteratingSystem implements TimedSystem {
+    private long nanos;
+
+    public TimedIteratingSystem(Family family, int priority) {
+        super(family, priority);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        long start = TimeUtils.nanoTime();
+        super.update(deltaTime);
+        nanos += TimeUtils.timeSinceNanos(start);
+    }
+
+    @Override
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public void resetNanos() {
+        nanos = 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.gledyson.tanks.ecs.systems;
+
+// Systems that keep their own update time, so each one can be profiled on its own
+public interface TimedSystem {
+    long getNanos();
+
+    void resetNanos();
+}
@@ -0,0 +1,50 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.MathUtils;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.TrackEmitterComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.effects.TrackDecalLayer;
+
+// Leaves a print behind any emitter that moved this step, same spacing rules as Tank.leaveTracks
+public class TrackEmitterSystem extends TimedIteratingSystem {
+    // optional, null when nothing is drawn
+    private TrackDecalLayer decals;
+
+    public TrackEmitterSystem(int priority) {
+        super(Family.all(TransformComponent.class, TrackEmitterComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        TrackEmitterComponent emitter = Mappers.trackEmitter.get(entity);
+        emitter.trail.update(deltaTime);
+        emitter.timeSinceLastPrint += deltaTime;
+
+        TransformComponent transform = Mappers.transform.get(entity);
+        float movedX = transform.x - transform.previousX;
+        float movedY = transform.y - transform.previousY;
+        if (movedX == 0 && movedY == 0) return;
+
+        if (emitter.trail.overlaps(transform.x, transform.y, transform.width, transform.height)) return;
+
+        // forward is (sin, -cos) of the orientation
+        boolean inReverse = movedX * MathUtils.sin(transform.orientation) - movedY * MathUtils.cos(transform.orientation) < 0;
+        float interval = inReverse ? emitter.reverseInterval : emitter.forwardInterval;
+        if (emitter.timeSinceLastPrint < interval) return;
+
+        float degrees = transform.orientation * MathUtils.radiansToDegrees;
+        emitter.trail.add(transform.x, transform.y, degrees);
+        emitter.timeSinceLastPrint = 0f;
+
+        if (decals != null && emitter.texture != null) {
+            decals.stamp(emitter.texture, transform.x, transform.y, degrees);
+        }
+    }
+
+    public void setDecals(TrackDecalLayer decals) {
+        this.decals = decals;
+    }
+}
@@ -0,0 +1,22 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+
+// Keeps last step's transform so rendering can interpolate
+public class TransformHistorySystem extends TimedIteratingSystem {
+
+    public TransformHistorySystem(int priority) {
+        super(Family.all(TransformComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        transform.previousX = transform.x;
+        transform.previousY = transform.y;
+        transform.previousOrientation = transform.orientation;
+    }
+}
@@ -0,0 +1,54 @@
+package com.gledyson.tanks.ecs.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.MathUtils;
+import com.gledyson.tanks.ecs.components.HealthComponent;
+import com.gledyson.tanks.ecs.components.Mappers;
+import com.gledyson.tanks.ecs.components.TeamComponent;
+import com.gledyson.tanks.ecs.components.TransformComponent;
+import com.gledyson.tanks.ecs.components.WeaponComponent;
+import com.gledyson.tanks.objects.Projectiles;
+
+// Reloads weapons and fires shells from the muzzle, like Tank.fire
+public class WeaponSystem extends TimedIteratingSystem {
+    private final Projectiles projectiles;
+    private int shotsFired;
+
+    public WeaponSystem(int priority, Projectiles projectiles) {
+        super(Family.all(TransformComponent.class, WeaponComponent.class, HealthComponent.class, TeamComponent.class).get(), priority);
+        this.projectiles = projectiles;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        if (Mappers.health.get(entity).dead) return;
+
+        WeaponComponent weapon = Mappers.weapon.get(entity);
+        weapon.timeSinceLastShot += deltaTime;
+        if (!weapon.automatic && !weapon.trigger) return;
+        if (weapon.timeSinceLastShot < weapon.shotRate) return;
+
+        TransformComponent transform = Mappers.transform.get(entity);
+        TeamComponent team = Mappers.team.get(entity);
+        float degrees = transform.orientation * MathUtils.radiansToDegrees;
+        float xOffset = MathUtils.sinDeg(-degrees) * (transform.width / 2);
+        float yOffset = MathUtils.cosDeg(-degrees) * (transform.height / 2);
+
+        projectiles.add(
+                team.id, team.team,
+                transform.x + transform.width / 2 - xOffset,
+                transform.y + transform.height / 2 - yOffset,
+                weapon.shotWidth, weapon.shotHeight,
+                weapon.shotSpeed,
+                degrees + 180,
+                weapon.damage
+        );
+        weapon.timeSinceLastShot = 0f;
+        shotsFired++;
+    }
+
+    public int getShotsFired() {
+        return shotsFired;
+    }
+}
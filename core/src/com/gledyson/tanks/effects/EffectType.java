@@ -0,0 +1,17 @@
+package com.gledyson.tanks.effects;
+
+// Every kind of one-shot animated effect, with the atlas frames and frame interval it plays with
+public enum EffectType {
+    SMOKE_EXPLOSION(0.05f,
+            "explosionSmoke1", "explosionSmoke2", "explosionSmoke3", "explosionSmoke4", "explosionSmoke5"),
+    EXPLOSION(0.125f,
+            "explosion1", "explosion2", "explosion3", "explosion4", "explosion5");
+
+    final float frameInterval;
+    final String[] frameNames;
+
+    EffectType(float frameInterval, String... frameNames) {
+        this.frameInterval = frameInterval;
+        this.frameNames = frameNames;
+    }
+}
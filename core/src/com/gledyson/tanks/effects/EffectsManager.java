@@ -0,0 +1,114 @@
+package com.gledyson.tanks.effects;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+import java.nio.ByteBuffer;
+
+// Plays pooled one-shot effects. Each EffectType has a single Animation built up front,
+// and at most maxEffects play at once: past that, the oldest effect is recycled for the new one.
+public class EffectsManager {
+    private static final EffectType[] TYPES = EffectType.values();
+
+    private final Array<Animation<TextureRegion>> animations;
+
+    // oldest first
+    private final Array<Explosion> active;
+    private final Pool<Explosion> pool;
+    private final int maxEffects;
+
+    private int recycledCount;
+
+    public EffectsManager(TextureAtlas atlas, int maxEffects) {
+        this.maxEffects = maxEffects;
+
+        animations = new Array<>(TYPES.length);
+        for (EffectType type : TYPES) {
+            TextureRegion[] frames = new TextureRegion[type.frameNames.length];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = atlas.findRegion(type.frameNames[i]);
+            }
+            animations.add(new Animation<>(type.frameInterval, frames));
+        }
+
+        active = new Array<>(maxEffects);
+        pool = new Pool<Explosion>(maxEffects, maxEffects) {
+            @Override
+            protected Explosion newObject() {
+                return new Explosion();
+            }
+        };
+    }
+
+    public void spawn(EffectType type, float x, float y) {
+        Explosion effect;
+        if (active.size >= maxEffects) {
+            // over budget, the oldest effect is the least noticeable one to cut short
+            effect = active.removeIndex(0);
+            effect.reset();
+            recycledCount++;
+        } else {
+            effect = pool.obtain();
+        }
+        active.add(effect.init(type, animations.get(type.ordinal()), x, y));
+    }
+
+    public void update(float delta) {
+        for (int i = active.size - 1; i >= 0; i--) {
+            Explosion effect = active.get(i);
+            effect.update(delta);
+
+            if (effect.isFinished()) {
+                pool.free(active.removeIndex(i));
+            }
+        }
+    }
+
+    // has to be called between batch.begin() and end()
+    public void draw(SpriteBatch batch) {
+        for (int i = 0; i < active.size; i++) {
+            active.get(i).draw(batch);
+        }
+    }
+
+    public void clear() {
+        pool.freeAll(active);
+        active.clear();
+    }
+
+    // Playing effects oldest first, as type, position and how far along they are
+    public void write(ByteBuffer out) {
+        out.putInt(recycledCount);
+        out.putInt(active.size);
+        for (int i = 0; i < active.size; i++) {
+            Explosion effect = active.get(i);
+            out.put((byte) effect.getType().ordinal());
+            out.putFloat(effect.getX()).putFloat(effect.getY()).putFloat(effect.getStateTime());
+        }
+    }
+
+    public void read(ByteBuffer in) {
+        clear();
+        recycledCount = in.getInt();
+        int effectCount = in.getInt();
+        for (int i = 0; i < effectCount; i++) {
+            EffectType type = TYPES[in.get()];
+            Explosion effect = pool.obtain().init(type, animations.get(type.ordinal()), in.getFloat(), in.getFloat());
+            effect.setStateTime(in.getFloat());
+            active.add(effect);
+        }
+    }
+
+    public int getActiveCount() {
+        return active.size;
+    }
+
+    // effects cut short because the budget was full
+    public int getRecycledCount() {
+        return recycledCount;
+    }
+}
@@ -3,23 +3,28 @@ package com.gledyson.tanks.effects;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 
-public class Explosion {
-    private final Animation<TextureRegion> animation;
+// One playing effect. The animation is shared by every effect of the same type,
+// instances are pooled and reused by EffectsManager.
+public class Explosion implements Pool.Poolable {
+    private EffectType type;
+    private Animation<TextureRegion> animation;
 
     // Position
-    private final float explosionX;
-    private final float explosionY;
+    private float explosionX;
+    private float explosionY;
 
     // Timing
     private float stateTime;
 
-    public Explosion(TextureRegion[] explosionFrames, float frameInterval, float posX, float posY) {
+    public Explosion init(EffectType type, Animation<TextureRegion> animation, float posX, float posY) {
+        this.type = type;
+        this.animation = animation;
         explosionX = posX;
         explosionY = posY;
         stateTime = 0f;
-
-        animation = new Animation<>(frameInterval, explosionFrames);
+        return this;
     }
 
     public void update(float delta) {
@@ -33,4 +38,31 @@ public class Explosion {
     public boolean isFinished() {
         return animation.isAnimationFinished(stateTime);
     }
+
+    public EffectType getType() {
+        return type;
+    }
+
+    public float getX() {
+        return explosionX;
+    }
+
+    public float getY() {
+        return explosionY;
+    }
+
+    public float getStateTime() {
+        return stateTime;
+    }
+
+    public void setStateTime(float stateTime) {
+        this.stateTime = stateTime;
+    }
+
+    @Override
+    public void reset() {
+        type = null;
+        animation = null;
+        stateTime = 0f;
+    }
 }
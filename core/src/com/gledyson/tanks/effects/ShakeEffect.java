@@ -1,9 +1,14 @@
 package com.gledyson.tanks.effects;
 
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector3;
 
+import java.nio.ByteBuffer;
+
 public class ShakeEffect {
+    // its own generator: the shake runs once per frame, so it mustn't use up the simulation's numbers
+    private static final RandomXS128 random = new RandomXS128();
+
     private static float time = 0f;
     private static float currentTime = 0f;
     private static float power = 0f;
@@ -16,12 +21,16 @@ public class ShakeEffect {
         currentTime = 0f;
     }
 
+    public static void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
     public static Vector3 updateAndGetPosition(float delta) {
         if (currentTime <= time) {
             currentPower = power * ((time - currentTime) / time);
 
-            position.x = (MathUtils.random(1.0f) - 0.5f) * 2 * currentPower;
-            position.y = (MathUtils.random(1.0f) - 0.5f) * 2 * currentPower;
+            position.x = (random.nextFloat() - 0.5f) * 2 * currentPower;
+            position.y = (random.nextFloat() - 0.5f) * 2 * currentPower;
 
             currentTime += delta;
         } else {
@@ -30,6 +39,22 @@ public class ShakeEffect {
         return position;
     }
 
+    // the shake in progress and the generator's state
+    public static void write(ByteBuffer out) {
+        out.putFloat(time).putFloat(currentTime).putFloat(power).putFloat(currentPower);
+        out.putFloat(position.x).putFloat(position.y).putFloat(position.z);
+        out.putLong(random.getState(0)).putLong(random.getState(1));
+    }
+
+    public static void read(ByteBuffer in) {
+        time = in.getFloat();
+        currentTime = in.getFloat();
+        power = in.getFloat();
+        currentPower = in.getFloat();
+        position.set(in.getFloat(), in.getFloat(), in.getFloat());
+        random.setState(in.getLong(), in.getLong());
+    }
+
     public static float getTimeLeft() {
         return time;
     }
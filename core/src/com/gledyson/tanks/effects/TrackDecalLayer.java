@@ -0,0 +1,147 @@
+package com.gledyson.tanks.effects;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+// Ground decals for track prints.
+// Each print is stamped once into an off-screen texture, the whole layer then fades with one
+// full-screen pass every FADE_INTERVAL, so the per-frame cost doesn't depend on how many prints exist.
+public class TrackDecalLayer implements Disposable {
+    private static final float PRINT_WIDTH = TrackTrail.PRINT_WIDTH;
+    private static final float PRINT_HEIGHT = TrackTrail.PRINT_HEIGHT;
+
+    // prints are gone FADE_STEPS * FADE_INTERVAL seconds after being stamped, TrackTrail.MAX_AGE
+    private static final float FADE_INTERVAL = 0.25f;
+    private static final int FADE_STEPS = 16;
+
+    private final int width;
+    private final int height;
+    private final FrameBuffer frameBuffer;
+    private final TextureRegion layerRegion;
+    private final Texture whitePixel;
+    private final Matrix4 projection;
+
+    // stamps waiting for the next update(), which runs outside the main batch
+    private TextureRegion[] pendingRegions = new TextureRegion[32];
+    private float[] pendingX = new float[32];
+    private float[] pendingY = new float[32];
+    private float[] pendingAngle = new float[32];
+    private int pendingCount;
+
+    private float timeSinceFade;
+    // fade passes until the newest print is gone, the layer is empty at 0
+    private int fadePassesLeft;
+
+    public TrackDecalLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        layerRegion = new TextureRegion(frameBuffer.getColorBufferTexture());
+        layerRegion.flip(false, true);
+
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(1, 1, 1, 1);
+        pixmap.fill();
+        whitePixel = new Texture(pixmap);
+        pixmap.dispose();
+
+        projection = new Matrix4().setToOrtho2D(0, 0, width, height);
+
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        frameBuffer.end();
+    }
+
+    public void stamp(TextureRegion texture, float x, float y, float angle) {
+        if (pendingCount == pendingX.length) {
+            int capacity = pendingCount * 2;
+            TextureRegion[] regions = new TextureRegion[capacity];
+            System.arraycopy(pendingRegions, 0, regions, 0, pendingCount);
+            pendingRegions = regions;
+            pendingX = copyOf(pendingX, capacity);
+            pendingY = copyOf(pendingY, capacity);
+            pendingAngle = copyOf(pendingAngle, capacity);
+        }
+        pendingRegions[pendingCount] = texture;
+        pendingX[pendingCount] = x;
+        pendingY[pendingCount] = y;
+        pendingAngle[pendingCount] = angle;
+        pendingCount++;
+    }
+
+    // Fades the layer and stamps new prints. Has to be called outside batch.begin() and end().
+    public void update(SpriteBatch batch, float delta) {
+        timeSinceFade += delta;
+        boolean fade = fadePassesLeft > 0 && timeSinceFade >= FADE_INTERVAL;
+        if (!fade && pendingCount == 0) return;
+
+        frameBuffer.begin();
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+
+        if (fade) {
+            // dst - src on every channel: the layer is premultiplied, so this fades it towards transparent
+            float step = 1f / FADE_STEPS;
+            batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE);
+            Gdx.gl.glBlendEquation(GL20.GL_FUNC_REVERSE_SUBTRACT);
+            batch.setColor(step, step, step, step);
+            batch.draw(whitePixel, 0, 0, width, height);
+            batch.flush();
+            Gdx.gl.glBlendEquation(GL20.GL_FUNC_ADD);
+            batch.setColor(1, 1, 1, 1);
+            timeSinceFade = 0f;
+            fadePassesLeft--;
+        }
+
+        if (pendingCount > 0) {
+            // keep the layer premultiplied
+            batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            for (int i = 0; i < pendingCount; i++) {
+                batch.draw(pendingRegions[i],
+                        pendingX[i], pendingY[i],
+                        PRINT_WIDTH / 2, PRINT_HEIGHT / 2,
+                        PRINT_WIDTH, PRINT_HEIGHT,
+                        1, 1,
+                        pendingAngle[i]
+                );
+                pendingRegions[i] = null;
+            }
+            pendingCount = 0;
+            fadePassesLeft = FADE_STEPS;
+        }
+
+        batch.end();
+        frameBuffer.end();
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    // Draws the whole layer as one quad, between batch.begin() and end()
+    public void draw(SpriteBatch batch) {
+        if (fadePassesLeft == 0) return;
+
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.draw(layerRegion, 0, 0, width, height);
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] resized = new float[capacity];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+        whitePixel.dispose();
+    }
+}
@@ -0,0 +1,180 @@
+package com.gledyson.tanks.effects;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.nio.ByteBuffer;
+
+// The track prints one tank left recently, kept as primitive records in a fixed-size ring.
+// Prints expire by age against a clock owned by the trail, and a small hash of grid cells
+// answers "is there already a print here" without scanning the whole ring.
+public class TrackTrail {
+    public static final float PRINT_WIDTH = 37;
+    public static final float PRINT_HEIGHT = 52;
+
+    // prints older than this are gone
+    public static final float MAX_AGE = 4f;
+
+    // a full ring overwrites its oldest print
+    private static final int CAPACITY = 32;
+
+    // the lookup grid, a print can only overlap boxes in the cells around it
+    private static final float CELL_SIZE = 64;
+    private static final int BUCKETS = 64; // power of two
+    private static final int NONE = -1;
+
+    // print records, position is the bottom-left corner like the tank's bounding box
+    private final float[] x = new float[CAPACITY];
+    private final float[] y = new float[CAPACITY];
+    private final float[] angle = new float[CAPACITY]; // degrees
+    private final float[] birth = new float[CAPACITY];
+
+    // every write bumps the slot's sequence, so links to an overwritten slot can be told apart
+    private final int[] sequence = new int[CAPACITY];
+
+    // per bucket, the newest print hashed there; per slot, the next older print in the same bucket
+    private final int[] bucketSlot = new int[BUCKETS];
+    private final int[] bucketSequence = new int[BUCKETS];
+    private final int[] nextSlot = new int[CAPACITY];
+    private final int[] nextSequence = new int[CAPACITY];
+
+    private int head; // slot of the next write
+    private int count;
+    private float clock;
+
+    public TrackTrail() {
+        clear();
+    }
+
+    public void update(float delta) {
+        clock += delta;
+
+        // oldest first, stop at the first one still alive
+        while (count > 0 && isExpired(oldestSlot())) {
+            count--;
+        }
+    }
+
+    public void add(float printX, float printY, float printAngle) {
+        add(printX, printY, printAngle, clock);
+    }
+
+    private void add(float printX, float printY, float printAngle, float printBirth) {
+        int slot = head;
+        head = (head + 1) & (CAPACITY - 1);
+        if (count < CAPACITY) count++;
+
+        x[slot] = printX;
+        y[slot] = printY;
+        angle[slot] = printAngle;
+        birth[slot] = printBirth;
+        sequence[slot]++;
+
+        int bucket = bucket(cell(printX), cell(printY));
+        nextSlot[slot] = bucketSlot[bucket];
+        nextSequence[slot] = bucketSequence[bucket];
+        bucketSlot[bucket] = slot;
+        bucketSequence[bucket] = sequence[slot];
+    }
+
+    // Same test as Rectangle.overlaps between the box and every live print, but only the
+    // cells a touching print could start in are visited.
+    public boolean overlaps(float boxX, float boxY, float boxWidth, float boxHeight) {
+        if (count == 0) return false;
+
+        int firstColumn = cell(boxX - PRINT_WIDTH), lastColumn = cell(boxX + boxWidth);
+        int firstRow = cell(boxY - PRINT_HEIGHT), lastRow = cell(boxY + boxHeight);
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (bucketOverlaps(bucket(column, row), boxX, boxY, boxWidth, boxHeight)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean bucketOverlaps(int bucket, float boxX, float boxY, float boxWidth, float boxHeight) {
+        int slot = bucketSlot[bucket];
+        int slotSequence = bucketSequence[bucket];
+
+        // chains run newest to oldest, past the first stale link everything is older and gone too
+        while (slot != NONE && sequence[slot] == slotSequence && !isExpired(slot)) {
+            if (x[slot] < boxX + boxWidth && x[slot] + PRINT_WIDTH > boxX
+                    && y[slot] < boxY + boxHeight && y[slot] + PRINT_HEIGHT > boxY) {
+                return true;
+            }
+            slotSequence = nextSequence[slot];
+            slot = nextSlot[slot];
+        }
+        return false;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        clock = 0f;
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketSlot[i] = NONE;
+        }
+    }
+
+    // Only the live prints are written, read() adds them back oldest first with their birth times
+    public void write(ByteBuffer out) {
+        out.putFloat(clock);
+        out.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            int slot = slotAt(i);
+            out.putFloat(x[slot]).putFloat(y[slot]).putFloat(angle[slot]).putFloat(birth[slot]);
+        }
+    }
+
+    public void read(ByteBuffer in) {
+        clear();
+        clock = in.getFloat();
+        int printCount = in.get();
+        for (int i = 0; i < printCount; i++) {
+            add(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+        }
+    }
+
+    private boolean isExpired(int slot) {
+        return clock - birth[slot] > MAX_AGE;
+    }
+
+    private int oldestSlot() {
+        return (head - count) & (CAPACITY - 1);
+    }
+
+    private static int cell(float coordinate) {
+        return MathUtils.floor(coordinate / CELL_SIZE);
+    }
+
+    private static int bucket(int column, int row) {
+        return (column * 73856093 ^ row * 19349663) & (BUCKETS - 1);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // i = 0 is the oldest live print
+    public float getX(int i) {
+        return x[slotAt(i)];
+    }
+
+    public float getY(int i) {
+        return y[slotAt(i)];
+    }
+
+    public float getAngle(int i) {
+        return angle[slotAt(i)];
+    }
+
+    public float getAge(int i) {
+        return clock - birth[slotAt(i)];
+    }
+
+    private int slotAt(int i) {
+        return (head - count + i) & (CAPACITY - 1);
+    }
+}
@@ -1,23 +1,59 @@
 package com.gledyson.tanks.objects;
 
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.gledyson.tanks.physics.OrientedBox;
 
 public class BaseEntity {
     protected final Rectangle boundingBox;
     protected final Vector2 position;
     protected float orientation; // radians
 
+    // State at the end of the previous simulation step, used to interpolate rendering
+    protected final Vector2 previousPosition;
+    protected float previousOrientation;
+
+    // Rotated collision shape, refreshed on demand
+    private final OrientedBox orientedBox = new OrientedBox();
+
     public BaseEntity(Rectangle boundingBox, float orientation) {
         this.boundingBox = boundingBox;
         this.orientation = orientation;
         this.position = new Vector2(boundingBox.x, boundingBox.y);
+        this.previousPosition = new Vector2(position);
+        this.previousOrientation = orientation;
+    }
+
+    public void savePreviousState() {
+        previousPosition.set(position);
+        previousOrientation = orientation;
+    }
+
+    public float getInterpolatedX(float alpha) {
+        return previousPosition.x + (position.x - previousPosition.x) * alpha;
+    }
+
+    public float getInterpolatedY(float alpha) {
+        return previousPosition.y + (position.y - previousPosition.y) * alpha;
+    }
+
+    public float getInterpolatedOrientation(float alpha) {
+        return MathUtils.lerpAngle(previousOrientation, orientation, alpha);
     }
 
     public Rectangle getBoundingBox() {
         return boundingBox;
     }
 
+    public OrientedBox getOrientedBox() {
+        return orientedBox.set(
+                position.x + boundingBox.width / 2, position.y + boundingBox.height / 2,
+                boundingBox.width / 2, boundingBox.height / 2,
+                orientation
+        );
+    }
+
     public float getOrientation() {
         return orientation;
     }
@@ -1,59 +1,121 @@
 package com.gledyson.tanks.objects;
 
-import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
 import com.badlogic.gdx.ai.steer.behaviors.Arrive;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.CollisionAvoidance;
+import com.badlogic.gdx.ai.steer.behaviors.Evade;
+import com.badlogic.gdx.ai.steer.behaviors.Pursue;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
+
+import java.nio.ByteBuffer;
+
+public class EnemyTank extends Tank implements IAutomaton, Pool.Poolable {
+    // steering behaviours a decision can pick, see selectBehavior
+    public static final int CHASE = 0;
+    public static final int ARRIVE = 1;
+    public static final int PURSUE = 2;
+    public static final int EVADE = 3;
+
+    // ARRIVE stops this far from the target and starts slowing down at HOLD_SLOWDOWN_RADIUS
+    private static final float HOLD_DISTANCE = 120;
+    private static final float HOLD_SLOWDOWN_RADIUS = 240;
+
+    // crowd steering: Separation pushes at full acceleration around SEPARATION_DISTANCE and falls
+    // off with the squared distance, CollisionAvoidance steers off predicted collisions
+    private static final float SEPARATION_DISTANCE = 48;
+    private static final float SEPARATION_WEIGHT = 1f;
+    private static final float AVOIDANCE_WEIGHT = 1f;
 
-public class EnemyTank extends Tank implements IAutomaton {
     protected final Tank targetTank;
-//    protected SteeringBehavior<Vector2>[] behaviorsArray;
+    protected final SteeringBehavior<Vector2>[] behaviorsArray;
+
+    // the selected behaviour's slot in the crowd blend, null without crowd steering
+    private BlendedSteering.BehaviorAndWeight<Vector2> selectedBehavior;
 
     public EnemyTank(float centerX, float centerY, float width, float height, float angle, TextureRegion tankTexture, TextureRegion tankDestroyedTexture, TextureRegion shotTexture, TextureRegion tracksTexture, float shotWidth, float shotHeight, float shotSpeed, float shotRate, Tank targetTank) {
         super(centerX, centerY, width, height, angle, tankTexture, tankDestroyedTexture, shotTexture, tracksTexture, shotWidth, shotHeight, shotSpeed, shotRate);
 
         this.targetTank = targetTank;
 
-//        Arrive<Vector2> arriveBehavior = new Arrive<>(this, targetTank);
-//        Pursue<Vector2> pursueBehavior = new Pursue<>(this, targetTank);
-//        Evade<Vector2> evadeBehavior = new Evade<>(this, targetTank);
-//        Face<Vector2> faceBehavior = new Face<>(this, targetTank);
-//        Wander<Vector2> wanderBehavior = new Wander<>(this);
-//        wanderBehavior.setWanderRadius(10f);
-//
-//        behaviorsArray = new SteeringBehavior[]{
-//                new Arrive<>(this, targetTank),
-//                new Pursue<>(this, targetTank),
-//                new Evade<>(this, targetTank),
-//                new Face<>(this, targetTank),
-//        };
-
-        steeringBehavior = new Arrive<>(this, targetTank);
+        // CHASE is a plain Arrive until the world hands out something smarter (see setBehavior)
+        behaviorsArray = newBehaviorsArray();
+        behaviorsArray[CHASE] = new Arrive<>(this, targetTank);
+        behaviorsArray[ARRIVE] = new Arrive<>(this, targetTank)
+                .setArrivalTolerance(HOLD_DISTANCE)
+                .setDecelerationRadius(HOLD_SLOWDOWN_RADIUS);
+        behaviorsArray[PURSUE] = new Pursue<>(this, targetTank);
+        behaviorsArray[EVADE] = new Evade<>(this, targetTank);
+
+        steeringBehavior = behaviorsArray[CHASE];
     }
 
-    @Override
-    public void fire(Tank tank, Sound shotSound) {
-        float xOffset = MathUtils.sinDeg(-tank.getOrientation() * MathUtils.radiansToDegrees) * (tank.getWidth() / 2);
-        float yOffset = MathUtils.cosDeg(-tank.getOrientation() * MathUtils.radiansToDegrees) * (tank.getHeight() / 2);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static SteeringBehavior<Vector2>[] newBehaviorsArray() {
+        return new SteeringBehavior[EVADE + 1];
+    }
 
-        Shot newShot = new Shot(
-                tank.getPositionX() + (tank.getWidth() / 2) - xOffset,
-                tank.getPositionY() + (tank.getHeight() / 2) - yOffset,
-                tank.getShotWidth(), tank.getShotHeight(),
-                tank.getShotTexture(),
-                tank.getShotSpeed(),
-                tank.getShotRate(),
-                tank.getOrientation() * MathUtils.radiansToDegrees + 180
-        );
+    // Blends the selected behaviour with keeping clear of the neighbours the proximity reports
+    public void enableCrowdSteering(Proximity<Vector2> proximity) {
+        if (selectedBehavior != null) return;
 
-        tank.getShots().add(newShot);
+        selectedBehavior = new BlendedSteering.BehaviorAndWeight<>(steeringBehavior, 1f);
+        steeringBehavior = new BlendedSteering<>(this)
+                .add(selectedBehavior)
+                .add(new Separation<>(this, proximity)
+                        .setDecayCoefficient(maxLinearAcceleration * SEPARATION_DISTANCE * SEPARATION_DISTANCE), SEPARATION_WEIGHT)
+                .add(new CollisionAvoidance<>(this, proximity), AVOIDANCE_WEIGHT);
+    }
+
+    public void setBehavior(int index, SteeringBehavior<Vector2> behavior) {
+        boolean selected = getSelectedBehavior() == behaviorsArray[index];
+        behaviorsArray[index] = behavior;
+        if (selected) selectBehavior(index);
+    }
+
+    public void selectBehavior(int index) {
+        if (selectedBehavior != null) {
+            selectedBehavior.setBehavior(behaviorsArray[index]);
+        } else {
+            steeringBehavior = behaviorsArray[index];
+        }
+    }
+
+    // the behaviour chosen by decisions, without crowd steering
+    public SteeringBehavior<Vector2> getSelectedBehavior() {
+        return selectedBehavior != null ? selectedBehavior.getBehavior() : steeringBehavior;
+    }
+
+    public Tank getTargetTank() {
+        return targetTank;
+    }
+
+    // the selected behaviour goes in as its index
+    @Override
+    public void write(ByteBuffer out) {
+        super.write(out);
+        SteeringBehavior<Vector2> selected = getSelectedBehavior();
+        int index = CHASE;
+        for (int i = 0; i < behaviorsArray.length; i++) {
+            if (behaviorsArray[i] == selected) index = i;
+        }
+        out.put((byte) index);
+    }
 
-        shotSound.play();
+    @Override
+    public void read(ByteBuffer in) {
+        super.read(in);
+        selectBehavior(in.get());
+    }
 
-        tank.setElapsedTimeSinceLastShot(0f);
+    @Override
+    public void reset() {
+        restore();
+        selectBehavior(CHASE);
     }
 
     @Override
@@ -61,7 +123,8 @@ public class EnemyTank extends Tank implements IAutomaton {
         if (isDead()) return;
 
         setTimeSinceLastTrackAdded(getTimeSinceLastTrackAdded() + deltaTime);
-        setElapsedTimeSinceLastShot(getElapsedTimeSinceLastShot() + deltaTime);
+        // reloading is done by the world every step, this may run less often
+        getTracks().update(deltaTime);
 
         if (steeringBehavior == null) return;
 
@@ -80,60 +143,4 @@ public class EnemyTank extends Tank implements IAutomaton {
         // Apply steering acceleration to move this agent
         applySteering(steeringOutput, deltaTime);
     }
-
-    @Override
-    public void applySteering(SteeringAcceleration<Vector2> steeringOutput, float deltaTime) {
-        // Update position and linear velocity. Velocity is trimmed to maximum speed
-
-        // add position + linearVelocity
-        this.position.mulAdd(linearVelocity, deltaTime);
-        // add linearVelocity + steeringOutput and limit it to max speed
-        this.linearVelocity.mulAdd(steeringOutput.linear, deltaTime).limit(this.getMaxLinearSpeed());
-
-        // Update orientation and angular velocity
-        if (independentFacing) {
-            this.orientation += angularVelocity * deltaTime;
-            this.angularVelocity += steeringOutput.angular * deltaTime;
-
-        } else {
-            // For non-independent facing we have to align orientation to linear velocity
-            float newOrientation = calculateOrientationFromLinearVelocity(this);
-            if (newOrientation != orientation) {
-                this.angularVelocity = (newOrientation - this.orientation) * deltaTime;
-                this.orientation = newOrientation;
-            }
-        }
-
-        // Tank class:
-
-        // setOrientation => the orientation of the tank object, not base entity
-        setOrientation((orientation * MathUtils.radiansToDegrees) + 180f);
-
-        // Moves the collision box along
-        boundingBox.x = getPositionX();
-        boundingBox.y = getPositionY();
-    }
-
-    @Override
-    public void draw(SpriteBatch batch) {
-        if (isDead()) {
-            batch.draw(
-                    getTankDestroyedTexture(),
-                    position.x, position.y,
-                    getWidth() / 2, getHeight() / 2,
-                    getWidth(), getHeight(),
-                    1, 1,
-                    getOrientation()
-            );
-        } else {
-            batch.draw(
-                    getTankTexture(),
-                    position.x, position.y,
-                    getWidth() / 2, getHeight() / 2,
-                    getWidth(), getHeight(),
-                    1, 1,
-                    getOrientation()
-            );
-        }
-    }
 }
@@ -0,0 +1,246 @@
+package com.gledyson.tanks.objects;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.nio.ByteBuffer;
+
+// Every live shot in the world, stored as parallel primitive arrays.
+// Removal swaps the last shot into the freed slot, so indices are only stable until the next remove().
+// Arrays grow while warming up and are reused afterwards, firing doesn't allocate.
+public class Projectiles {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    // shots older than this are removed even if still in bounds
+    private static final float MAX_LIFETIME = 4f;
+
+    private int count;
+
+    // position is the bottom-left corner, like BaseEntity
+    private float[] x, y;
+    private float[] previousX, previousY;
+    private float[] velocityX, velocityY;
+    private float[] width, height;
+    private float[] angle; // degrees, for drawing
+    private float[] age;
+    private int[] owner; // tank id
+    private int[] team;
+    private int[] damage;
+
+    public Projectiles() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Projectiles(int capacity) {
+        allocate(capacity);
+    }
+
+    public int add(int ownerId, int ownerTeam,
+                   float centerX, float centerY,
+                   float shotWidth, float shotHeight,
+                   float speed, float angleDeg, int shotDamage) {
+        if (count == x.length) {
+            allocate(count * 2);
+        }
+
+        int i = count++;
+        x[i] = centerX - shotWidth / 2;
+        y[i] = centerY - shotHeight / 2;
+        previousX[i] = x[i];
+        previousY[i] = y[i];
+        velocityX[i] = MathUtils.sinDeg(-angleDeg) * speed;
+        velocityY[i] = MathUtils.cosDeg(-angleDeg) * speed;
+        width[i] = shotWidth;
+        height[i] = shotHeight;
+        angle[i] = angleDeg;
+        age[i] = 0f;
+        owner[i] = ownerId;
+        team[i] = ownerTeam;
+        damage[i] = shotDamage;
+        return i;
+    }
+
+    // Moves every shot and drops the ones that left the given bounds or got too old
+    public void integrate(float delta, float minX, float minY, float maxX, float maxY) {
+        for (int i = count - 1; i >= 0; i--) {
+            moveTo(i, x[i] + velocityX[i] * delta, y[i] + velocityY[i] * delta, delta);
+
+            if (isExpired(i, minX, minY, maxX, maxY)) {
+                remove(i);
+            }
+        }
+    }
+
+    // Moves one shot to a position worked out elsewhere (e.g. by Box2D) and ages it by delta
+    public void moveTo(int i, float newX, float newY, float delta) {
+        previousX[i] = x[i];
+        previousY[i] = y[i];
+        x[i] = newX;
+        y[i] = newY;
+        age[i] += delta;
+    }
+
+    public boolean isExpired(int i, float minX, float minY, float maxX, float maxY) {
+        return x[i] < minX || x[i] > maxX || y[i] < minY || y[i] > maxY || age[i] > MAX_LIFETIME;
+    }
+
+    public void remove(int i) {
+        int last = --count;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        width[i] = width[last];
+        height[i] = height[last];
+        angle[i] = angle[last];
+        age[i] = age[last];
+        owner[i] = owner[last];
+        team[i] = team[last];
+        damage[i] = damage[last];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // Every live shot, slot by slot, so indices are the same after read()
+    public void write(ByteBuffer out) {
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.putFloat(x[i]).putFloat(y[i]);
+            out.putFloat(previousX[i]).putFloat(previousY[i]);
+            out.putFloat(velocityX[i]).putFloat(velocityY[i]);
+            out.putFloat(width[i]).putFloat(height[i]);
+            out.putFloat(angle[i]).putFloat(age[i]);
+            out.putInt(owner[i]).putInt(team[i]).putInt(damage[i]);
+        }
+    }
+
+    public void read(ByteBuffer in) {
+        count = 0;
+        int shotCount = in.getInt();
+        if (shotCount > x.length) {
+            allocate(shotCount);
+        }
+        for (int i = 0; i < shotCount; i++) {
+            x[i] = in.getFloat();
+            y[i] = in.getFloat();
+            previousX[i] = in.getFloat();
+            previousY[i] = in.getFloat();
+            velocityX[i] = in.getFloat();
+            velocityY[i] = in.getFloat();
+            width[i] = in.getFloat();
+            height[i] = in.getFloat();
+            angle[i] = in.getFloat();
+            age[i] = in.getFloat();
+            owner[i] = in.getInt();
+            team[i] = in.getInt();
+            damage[i] = in.getInt();
+        }
+        count = shotCount;
+    }
+
+    private void allocate(int capacity) {
+        x = resize(x, capacity);
+        y = resize(y, capacity);
+        previousX = resize(previousX, capacity);
+        previousY = resize(previousY, capacity);
+        velocityX = resize(velocityX, capacity);
+        velocityY = resize(velocityY, capacity);
+        width = resize(width, capacity);
+        height = resize(height, capacity);
+        angle = resize(angle, capacity);
+        age = resize(age, capacity);
+        owner = resize(owner, capacity);
+        team = resize(team, capacity);
+        damage = resize(damage, capacity);
+    }
+
+    private float[] resize(float[] array, int capacity) {
+        float[] resized = new float[capacity];
+        if (array != null) System.arraycopy(array, 0, resized, 0, count);
+        return resized;
+    }
+
+    private int[] resize(int[] array, int capacity) {
+        int[] resized = new int[capacity];
+        if (array != null) System.arraycopy(array, 0, resized, 0, count);
+        return resized;
+    }
+
+    public boolean overlaps(int i, float rectX, float rectY, float rectWidth, float rectHeight) {
+        return x[i] < rectX + rectWidth && x[i] + width[i] > rectX
+                && y[i] < rectY + rectHeight && y[i] + height[i] > rectY;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getPreviousX(int i) {
+        return previousX[i];
+    }
+
+    public float getPreviousY(int i) {
+        return previousY[i];
+    }
+
+    public float getInterpolatedX(int i, float alpha) {
+        return previousX[i] + (x[i] - previousX[i]) * alpha;
+    }
+
+    public float getInterpolatedY(int i, float alpha) {
+        return previousY[i] + (y[i] - previousY[i]) * alpha;
+    }
+
+    public float getVelocityX(int i) {
+        return velocityX[i];
+    }
+
+    public float getVelocityY(int i) {
+        return velocityY[i];
+    }
+
+    public float getWidth(int i) {
+        return width[i];
+    }
+
+    public float getHeight(int i) {
+        return height[i];
+    }
+
+    public float getAngle(int i) {
+        return angle[i];
+    }
+
+    public float getAge(int i) {
+        return age[i];
+    }
+
+    public int getOwner(int i) {
+        return owner[i];
+    }
+
+    public int getTeam(int i) {
+        return team[i];
+    }
+
+    public int getDamage(int i) {
+        return damage[i];
+    }
+}
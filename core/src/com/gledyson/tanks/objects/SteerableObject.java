@@ -4,6 +4,7 @@ import com.badlogic.gdx.ai.steer.Steerable;
 import com.badlogic.gdx.ai.steer.SteeringAcceleration;
 import com.badlogic.gdx.ai.steer.SteeringBehavior;
 import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
@@ -116,6 +117,44 @@ public class SteerableObject extends BaseEntity implements Steerable<Vector2> {
         return outVector;
     }
 
+    // Moves the object by a steering output, shared by EnemyTank and the ECS steering system
+    public void applySteering(SteeringAcceleration<Vector2> steeringOutput, float deltaTime) {
+        // Update position and linear velocity. Velocity is trimmed to maximum speed
+
+        // add position + linearVelocity
+        this.position.mulAdd(linearVelocity, deltaTime);
+        // add linearVelocity + steeringOutput and limit it to max speed
+        this.linearVelocity.mulAdd(steeringOutput.linear, deltaTime).limit(this.getMaxLinearSpeed());
+
+        // Update orientation and angular velocity
+        if (independentFacing) {
+            this.orientation += angularVelocity * deltaTime;
+            this.angularVelocity += steeringOutput.angular * deltaTime;
+
+        } else if (!linearVelocity.isZero(getZeroLinearSpeedThreshold())) {
+            // For non-independent facing we have to align orientation to linear velocity.
+            // Tank textures point down, so the hull faces half a turn away from the steering angle
+            // (same convention as PlayerTank, and kept in radians so it can be interpolated).
+            float newOrientation = vectorToAngle(linearVelocity) + MathUtils.PI;
+            if (newOrientation != orientation) {
+                this.angularVelocity = (newOrientation - this.orientation) * deltaTime;
+                this.orientation = newOrientation;
+            }
+        }
+
+        // Moves the collision box along
+        boundingBox.x = getPositionX();
+        boundingBox.y = getPositionY();
+    }
+
+    public SteeringBehavior<Vector2> getSteeringBehavior() {
+        return steeringBehavior;
+    }
+
+    public void setSteeringBehavior(SteeringBehavior<Vector2> steeringBehavior) {
+        this.steeringBehavior = steeringBehavior;
+    }
+
     public static float calculateOrientationFromLinearVelocity(Steerable<Vector2> character) {
         // If we haven't got any velocity, then we can do nothing.
         if (character.getLinearVelocity().isZero(character.getZeroLinearSpeedThreshold())) {
@@ -1,14 +1,21 @@
 package com.gledyson.tanks.objects;
 
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
-import com.gledyson.tanks.effects.TrackPrint;
+import com.gledyson.tanks.effects.TrackTrail;
+
+import java.nio.ByteBuffer;
 
 public abstract class Tank extends SteerableObject {
+    public static final int TEAM_PLAYER = 0;
+    public static final int TEAM_ENEMY = 1;
+
+    // Identity inside the world
+    private int id = -1;
+    private int team;
+
     // Position and size
     private final float shotWidth;
     private final float shotHeight;
@@ -20,21 +27,25 @@ public abstract class Tank extends SteerableObject {
     private final TextureRegion tracksTexture;
 
     // Tracks
-    private final Array<TrackPrint> tracks;
+    private final TrackTrail tracks;
     private float timeSinceLastTrackAdded = 0f;
 
     // Shots
-    private final Array<Shot> shots;
     private final float shotSpeed;
     private final float shotRate;
     private float elapsedTimeSinceLastShot;
 
     // Characteristics
     private static final float TRAVEL_LENGTH_CONSTANT = 64;
+    private static final int SHOT_DAMAGE = 1000;
+    private static final int MAX_HEALTH = 800;
     private final int armor = 500;
-    private int health = 800;
+    private int health = MAX_HEALTH;
     private boolean dead = false;
 
+    // false while parked in a pool, inactive tanks are left out of the world
+    private boolean active = true;
+
     public Tank(
             float centerX, float centerY,
             float width, float height,
@@ -56,10 +67,9 @@ public abstract class Tank extends SteerableObject {
         this.tracksTexture = tracksTexture;
 
         // tracks
-        this.tracks = new Array<>();
+        this.tracks = new TrackTrail();
 
         // shots
-        this.shots = new Array<>();
         this.shotTexture = shotTexture;
         this.shotWidth = shotWidth;
         this.shotHeight = shotHeight;
@@ -69,9 +79,32 @@ public abstract class Tank extends SteerableObject {
 
     public void update(float deltaTime) {
         timeSinceLastTrackAdded += deltaTime;
+        tracks.update(deltaTime);
+        reload(deltaTime);
+    }
+
+    public void reload(float deltaTime) {
         elapsedTimeSinceLastShot += deltaTime;
     }
 
+    // Puts the tank back in its starting condition, as when it was built
+    protected void restore() {
+        health = MAX_HEALTH;
+        dead = false;
+        elapsedTimeSinceLastShot = 0f;
+        timeSinceLastTrackAdded = 0f;
+        tracks.clear();
+        linearVelocity.setZero();
+        angularVelocity = 0f;
+    }
+
+    // Moves the tank without interpolating from where it was
+    public void placeAt(float centerX, float centerY, float angle) {
+        updatePosition(centerX - getWidth() / 2, centerY - getHeight() / 2);
+        setOrientation(angle * MathUtils.degreesToRadians);
+        savePreviousState();
+    }
+
     public void updatePosition(float x, float y) {
         setPositionX(x);
         setPositionY(y);
@@ -81,80 +114,56 @@ public abstract class Tank extends SteerableObject {
         return (elapsedTimeSinceLastShot - shotRate >= 0);
     }
 
-    public void draw(SpriteBatch batch) {
-        if (dead) {
-            batch.draw(
-                    tankDestroyedTexture,
-                    getPositionX(), getPositionY(),
-                    getWidth() / 2, getHeight() / 2,
-                    getWidth(), getHeight(),
-                    1, 1,
-                    getOrientation() * MathUtils.radiansToDegrees
-            );
-        } else {
-            batch.draw(
-                    tankTexture,
-                    getPositionX(), getPositionY(),
-                    getWidth() / 2, getHeight() / 2,
-                    getWidth(), getHeight(),
-                    1, 1,
-                    getOrientation() * MathUtils.radiansToDegrees
-            );
-        }
+    public void draw(SpriteBatch batch, float alpha) {
+        batch.draw(
+                dead ? tankDestroyedTexture : tankTexture,
+                getInterpolatedX(alpha), getInterpolatedY(alpha),
+                getWidth() / 2, getHeight() / 2,
+                getWidth(), getHeight(),
+                1, 1,
+                getInterpolatedOrientation(alpha) * MathUtils.radiansToDegrees
+        );
     }
 
-    public void fire(Tank tank, Sound shotSound) {
+    public void fire(Projectiles projectiles) {
+        float xOffset = MathUtils.sinDeg(-getOrientation() * MathUtils.radiansToDegrees) * (getWidth() / 2);
+        float yOffset = MathUtils.cosDeg(-getOrientation() * MathUtils.radiansToDegrees) * (getHeight() / 2);
 
-        float xOffset = MathUtils.sin(-tank.getOrientation() * MathUtils.radiansToDegrees) * (tank.getWidth() / 2);
-        float yOffset = MathUtils.cos(-tank.getOrientation() * MathUtils.radiansToDegrees) * (tank.getHeight() / 2);
-
-        Shot newShot = new Shot(
-                boundingBox.x + (boundingBox.width / 2) - xOffset,
-                boundingBox.y + (boundingBox.width / 2) + yOffset,
+        projectiles.add(
+                id, team,
+                getPositionX() + (getWidth() / 2) - xOffset,
+                getPositionY() + (getHeight() / 2) - yOffset,
                 shotWidth, shotHeight,
-                shotTexture,
                 shotSpeed,
-                shotRate,
-                getOrientation() * MathUtils.radiansToDegrees + 180
+                getOrientation() * MathUtils.radiansToDegrees + 180,
+                SHOT_DAMAGE
         );
 
-        shots.add(newShot);
-
-        shotSound.play();
-
         elapsedTimeSinceLastShot = 0f;
     }
 
-    public void leaveTracks(boolean inReverse) {
-
-        for (TrackPrint trackprint : tracks) {
-            if (boundingBox.overlaps(trackprint.boundingBox)) {
-                return;
-            }
+    // returns true if a new print was left
+    public boolean leaveTracks(boolean inReverse) {
+        if (tracks.overlaps(boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height)) {
+            return false;
         }
 
-        float interval;
+        if (timeSinceLastTrackAdded < getTrackInterval(inReverse)) return false;
+        tracks.add(boundingBox.x, boundingBox.y, getOrientation() * MathUtils.radiansToDegrees);
+        timeSinceLastTrackAdded = 0f;
+        return true;
+    }
+
+    // seconds between two prints
+    public float getTrackInterval(boolean inReverse) {
         if (inReverse) {
-            interval = TRAVEL_LENGTH_CONSTANT / getReverseSpeed();
-        } else {
-            interval = TRAVEL_LENGTH_CONSTANT / getSpeed();
+            return TRAVEL_LENGTH_CONSTANT / getReverseSpeed();
         }
-
-        if (timeSinceLastTrackAdded < interval) return;
-        tracks.add(new TrackPrint(
-                tracksTexture,
-                boundingBox.x, boundingBox.y,
-                getOrientation() * MathUtils.radiansToDegrees
-        ));
-        timeSinceLastTrackAdded = 0f;
+        return TRAVEL_LENGTH_CONSTANT / getSpeed();
     }
 
     public boolean takeDamageAndCheckDestroyed(int damage) {
-        int totalDamage = damage - this.armor;
-
-        if (totalDamage < 0) totalDamage = 0;
-
-        health -= totalDamage;
+        health -= damageAfterArmor(damage, armor);
 
         if (health <= 0) {
             this.dead = true;
@@ -164,6 +173,39 @@ public abstract class Tank extends SteerableObject {
         return false;
     }
 
+    // What a hit takes off the health, armor absorbs part of it but never heals
+    public static int damageAfterArmor(int damage, int armor) {
+        return Math.max(0, damage - armor);
+    }
+
+    // Everything that changes while playing, for world snapshots. read() takes back what write() wrote.
+    public void write(ByteBuffer out) {
+        out.putFloat(position.x).putFloat(position.y).putFloat(orientation);
+        out.putFloat(previousPosition.x).putFloat(previousPosition.y).putFloat(previousOrientation);
+        out.putFloat(linearVelocity.x).putFloat(linearVelocity.y).putFloat(angularVelocity);
+        out.putInt(health);
+        out.put((byte) (dead ? 1 : 0));
+        out.put((byte) (active ? 1 : 0));
+        out.putFloat(elapsedTimeSinceLastShot);
+        out.putFloat(timeSinceLastTrackAdded);
+        tracks.write(out);
+    }
+
+    public void read(ByteBuffer in) {
+        updatePosition(in.getFloat(), in.getFloat());
+        orientation = in.getFloat();
+        previousPosition.set(in.getFloat(), in.getFloat());
+        previousOrientation = in.getFloat();
+        linearVelocity.set(in.getFloat(), in.getFloat());
+        angularVelocity = in.getFloat();
+        health = in.getInt();
+        dead = in.get() != 0;
+        active = in.get() != 0;
+        elapsedTimeSinceLastShot = in.getFloat();
+        timeSinceLastTrackAdded = in.getFloat();
+        tracks.read(in);
+    }
+
     public void dispose() {
 
     }
@@ -176,10 +218,6 @@ public abstract class Tank extends SteerableObject {
         return shotHeight;
     }
 
-    public Array<Shot> getShots() {
-        return shots;
-    }
-
     public float getSpeed() {
         return maxLinearSpeed;
     }
@@ -220,14 +258,54 @@ public abstract class Tank extends SteerableObject {
         this.timeSinceLastTrackAdded = timeSinceLastTrackAdded;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getTeam() {
+        return team;
+    }
+
+    public void setTeam(int team) {
+        this.team = team;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public int getArmor() {
+        return armor;
+    }
+
+    public int getShotDamage() {
+        return SHOT_DAMAGE;
+    }
+
     public boolean isDead() {
         return dead;
     }
 
-    public Array<TrackPrint> getTracks() {
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public TrackTrail getTracks() {
         return tracks;
     }
 
+    public TextureRegion getTracksTexture() {
+        return tracksTexture;
+    }
+
     public TextureRegion getTankTexture() {
         return tankTexture;
     }
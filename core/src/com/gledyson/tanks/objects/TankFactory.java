@@ -0,0 +1,79 @@
+package com.gledyson.tanks.objects;
+
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+// Builds the game's tanks. Textures are optional so the simulation can run without a GL context.
+public class TankFactory {
+    private final TextureRegion blueTankTexture;
+    private final TextureRegion blueTankDestroyedTexture;
+    private final TextureRegion redTankTexture;
+    private final TextureRegion redTankDestroyedTexture;
+    private final TextureRegion playerShotTexture;
+    private final TextureRegion enemyShotTexture;
+    private final TextureRegion tracksTexture;
+
+    // headless: no textures
+    public TankFactory() {
+        this(null, null, null, null, null, null, null);
+    }
+
+    public TankFactory(TextureAtlas textureAtlas) {
+        this(
+                textureAtlas.findRegion("tank_blue"),
+                textureAtlas.findRegion("tankBody_blue_outline"),
+                textureAtlas.findRegion("tank_red"),
+                textureAtlas.findRegion("tankBody_red_outline"),
+                textureAtlas.findRegion("shotThin"),
+                textureAtlas.findRegion("shotRed"),
+                textureAtlas.findRegion("tracksSmall")
+        );
+    }
+
+    public TankFactory(
+            TextureRegion blueTankTexture,
+            TextureRegion blueTankDestroyedTexture,
+            TextureRegion redTankTexture,
+            TextureRegion redTankDestroyedTexture,
+            TextureRegion playerShotTexture,
+            TextureRegion enemyShotTexture,
+            TextureRegion tracksTexture
+    ) {
+        this.blueTankTexture = blueTankTexture;
+        this.blueTankDestroyedTexture = blueTankDestroyedTexture;
+        this.redTankTexture = redTankTexture;
+        this.redTankDestroyedTexture = redTankDestroyedTexture;
+        this.playerShotTexture = playerShotTexture;
+        this.enemyShotTexture = enemyShotTexture;
+        this.tracksTexture = tracksTexture;
+    }
+
+    public PlayerTank createPlayerTank(float centerX, float centerY, float angle) {
+        return new PlayerTank(
+                centerX, centerY,
+                42, 46,
+                angle,
+                blueTankTexture,
+                blueTankDestroyedTexture,
+                playerShotTexture,
+                tracksTexture,
+                8, 26,
+                650, 3.5f
+        );
+    }
+
+    public EnemyTank createEnemyTank(float centerX, float centerY, float angle, Tank targetTank) {
+        return new EnemyTank(
+                centerX, centerY,
+                38, 46,
+                angle,
+                redTankTexture,
+                redTankDestroyedTexture,
+                enemyShotTexture,
+                tracksTexture,
+                21, 38,
+                800, 4.0f,
+                targetTank
+        );
+    }
+}
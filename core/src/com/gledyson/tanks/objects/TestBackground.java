@@ -1,22 +1,120 @@
 package com.gledyson.tanks.objects;
 
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
 import com.gledyson.tanks.TanksGame;
 
-public class TestBackground {
+public class TestBackground implements Disposable {
+    // Baked mode groups tiles into chunks, each chunk is one SpriteCache draw call
+    private static final int CHUNK_SIZE = 512;
+
     private TextureRegion backgroundTexture;
     private int size;
 
-    public TestBackground(TextureRegion backgroundTexture, int size) {
+    private final int width;
+    private final int height;
+    private final int chunkColumns;
+    private final int chunkRows;
+
+    private SpriteCache cache;
+    private final int[] chunkCacheIds;
+    private boolean dirty = true;
+
+    public TestBackground(TextureRegion backgroundTexture, int size, int width, int height) {
         this.backgroundTexture = backgroundTexture;
         this.size = size;
+        this.width = width;
+        this.height = height;
+
+        this.chunkColumns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkRows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkCacheIds = new int[chunkColumns * chunkRows];
     }
 
+    // Immediate mode: one batch.draw per tile, has to be called between batch.begin() and end()
     public void draw(TanksGame game) {
-        for (int x = 0; x < game.WIDTH; x += size) {
-            for (int y = 0; y < game.HEIGHT; y += size) {
+        for (int x = 0; x < width; x += size) {
+            for (int y = 0; y < height; y += size) {
                 game.batch.draw(backgroundTexture, x, y);
             }
         }
     }
+
+    // Baked mode: draws the visible chunks from the cache, has to be called outside batch.begin() and end()
+    public void draw(OrthographicCamera camera) {
+        if (dirty) bake();
+
+        float halfViewWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfViewHeight = camera.viewportHeight * camera.zoom / 2;
+        float viewLeft = camera.position.x - halfViewWidth;
+        float viewRight = camera.position.x + halfViewWidth;
+        float viewBottom = camera.position.y - halfViewHeight;
+        float viewTop = camera.position.y + halfViewHeight;
+
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int row = 0; row < chunkRows; row++) {
+            float chunkBottom = row * CHUNK_SIZE;
+            if (chunkBottom > viewTop || chunkBottom + CHUNK_SIZE < viewBottom) continue;
+
+            for (int column = 0; column < chunkColumns; column++) {
+                float chunkLeft = column * CHUNK_SIZE;
+                if (chunkLeft > viewRight || chunkLeft + CHUNK_SIZE < viewLeft) continue;
+
+                cache.draw(chunkCacheIds[row * chunkColumns + column]);
+            }
+        }
+        cache.end();
+    }
+
+    // Call when the terrain changes, the cache is rebuilt on the next draw
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public void setBackgroundTexture(TextureRegion backgroundTexture) {
+        this.backgroundTexture = backgroundTexture;
+        invalidate();
+    }
+
+    private void bake() {
+        int tilesPerChunk = (CHUNK_SIZE / size + 1) * (CHUNK_SIZE / size + 1);
+        if (cache == null) {
+            cache = new SpriteCache(tilesPerChunk * chunkCacheIds.length, false);
+        } else {
+            cache.clear();
+        }
+
+        for (int row = 0; row < chunkRows; row++) {
+            for (int column = 0; column < chunkColumns; column++) {
+                int chunkLeft = column * CHUNK_SIZE;
+                int chunkBottom = row * CHUNK_SIZE;
+                int chunkRight = Math.min(chunkLeft + CHUNK_SIZE, width);
+                int chunkTop = Math.min(chunkBottom + CHUNK_SIZE, height);
+
+                cache.beginCache();
+                // same tile grid as immediate mode, tiles belong to the chunk holding their corner
+                for (int x = firstTile(chunkLeft); x < chunkRight; x += size) {
+                    for (int y = firstTile(chunkBottom); y < chunkTop; y += size) {
+                        cache.add(backgroundTexture, x, y);
+                    }
+                }
+                chunkCacheIds[row * chunkColumns + column] = cache.endCache();
+            }
+        }
+        dirty = false;
+    }
+
+    private int firstTile(int chunkStart) {
+        return (chunkStart + size - 1) / size * size;
+    }
+
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+        }
+    }
 }
@@ -0,0 +1,402 @@
+package com.gledyson.tanks.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactFilter;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.world.GameWorld;
+
+// Optional physics mode: tanks and shells become Box2D bodies.
+// The game rules still decide where tanks want to go, Box2D moves them there and resolves blocking.
+// Shells are bullets (continuous collision), hits come from the contact listener and feed GameWorld.handleHit.
+// Bodies nobody moves fall asleep and wrecks turn static, so only what moves costs anything.
+// Tanks all collide with each other, the contact filter only lets shells through their own side.
+public class Box2DPhysics implements ContactListener, ContactFilter, Disposable {
+    private static final float PIXELS_PER_METER = 32f;
+    private static final int VELOCITY_ITERATIONS = 6;
+    private static final int POSITION_ITERATIONS = 2;
+
+    private static final short CATEGORY_TANK = 1;
+    private static final short CATEGORY_SHELL = 1 << 1;
+
+    // user data of shell bodies, tank bodies carry their Tank
+    private static class Shell {
+        final float width, height;
+        int team; // of the shot it's flying for
+
+        Shell(float width, float height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final GameWorld gameWorld;
+    private final World world;
+    private final float minX, minY, maxX, maxY;
+
+    // indexed by tank id
+    private final Array<Body> tankBodies;
+
+    // parallel to the projectile slots, kept in step with their swap-removal
+    private Body[] shellBodies;
+    private int shellCount;
+    private final Array<Body> freeShellBodies;
+
+    // contacts are only recorded during the step, the world can't be changed inside callbacks
+    private final Array<Body> hitShells;
+    private final Array<Tank> hitTanks;
+
+    private final BodyDef bodyDef;
+    private final FixtureDef fixtureDef;
+    private final PolygonShape shape;
+
+    public Box2DPhysics(GameWorld gameWorld, float minX, float minY, float maxX, float maxY) {
+        Box2D.init();
+
+        this.gameWorld = gameWorld;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+
+        world = new World(new Vector2(0, 0), true);
+        world.setContactListener(this);
+        world.setContactFilter(this);
+
+        tankBodies = new Array<>();
+        shellBodies = new Body[64];
+        freeShellBodies = new Array<>();
+        hitShells = new Array<>();
+        hitTanks = new Array<>();
+
+        bodyDef = new BodyDef();
+        fixtureDef = new FixtureDef();
+        shape = new PolygonShape();
+    }
+
+    public void step(float delta) {
+        syncTanks(delta);
+        syncNewShells();
+
+        world.step(delta, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+
+        readBackTanks();
+        readBackShells(delta);
+        resolveHits();
+    }
+
+    // Drives every tank body towards the position the game rules gave the tank this step
+    private void syncTanks(float delta) {
+        Array<Tank> tanks = gameWorld.getTanks();
+        while (tankBodies.size < tanks.size) {
+            tankBodies.add(createTankBody(tanks.get(tankBodies.size)));
+        }
+
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            Body body = tankBodies.get(i);
+
+            // pooled tanks leave the simulation until placeTank brings them back
+            if (!tank.isActive()) {
+                if (body.isActive()) body.setActive(false);
+                continue;
+            }
+
+            if (tank.isDead()) {
+                // wrecks never move again, static bodies cost nothing to simulate
+                if (body.getType() != BodyDef.BodyType.StaticBody) {
+                    body.setLinearVelocity(0, 0);
+                    body.setType(BodyDef.BodyType.StaticBody);
+                }
+                continue;
+            }
+            if (body.getType() != BodyDef.BodyType.DynamicBody) {
+                body.setType(BodyDef.BodyType.DynamicBody);
+            }
+
+            Vector2 bodyPosition = body.getPosition();
+            float targetX = toMeters(tank.getPositionX() + tank.getWidth() / 2);
+            float targetY = toMeters(tank.getPositionY() + tank.getHeight() / 2);
+
+            // a zero velocity doesn't wake the body, so parked tanks can fall asleep
+            body.setLinearVelocity((targetX - bodyPosition.x) / delta, (targetY - bodyPosition.y) / delta);
+            if (body.getAngle() != tank.getOrientation()) {
+                body.setTransform(bodyPosition.x, bodyPosition.y, tank.getOrientation());
+            }
+        }
+    }
+
+    // Moves a tank's body straight to where the tank was placed, e.g. on respawn
+    public void placeTank(Tank tank) {
+        // no body yet, it is created where the tank is on the next step
+        if (tank.getId() >= tankBodies.size) return;
+
+        Body body = tankBodies.get(tank.getId());
+        body.setTransform(
+                toMeters(tank.getPositionX() + tank.getWidth() / 2),
+                toMeters(tank.getPositionY() + tank.getHeight() / 2),
+                tank.getOrientation());
+        body.setLinearVelocity(0, 0);
+        body.setActive(true);
+    }
+
+    // After the game state was replaced (a restored snapshot): tank bodies jump to their tanks,
+    // and shells are dropped and built again from the projectiles on the next step.
+    // Contacts Box2D cached aren't part of a snapshot, so Box2D matches won't restore bit for bit.
+    public void resync() {
+        Array<Tank> tanks = gameWorld.getTanks();
+        for (int i = 0; i < tankBodies.size && i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            Body body = tankBodies.get(i);
+            body.setType(tank.isDead() ? BodyDef.BodyType.StaticBody : BodyDef.BodyType.DynamicBody);
+            placeTank(tank);
+            body.setActive(tank.isActive());
+        }
+        while (shellCount > 0) {
+            removeShell(shellCount - 1);
+        }
+        hitShells.clear();
+        hitTanks.clear();
+    }
+
+    private void readBackTanks() {
+        Array<Tank> tanks = gameWorld.getTanks();
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            Body body = tankBodies.get(i);
+            if (!tank.isActive() || tank.isDead() || !body.isAwake()) continue;
+
+            Vector2 bodyPosition = body.getPosition();
+            tank.updatePosition(
+                    toPixels(bodyPosition.x) - tank.getWidth() / 2,
+                    toPixels(bodyPosition.y) - tank.getHeight() / 2
+            );
+        }
+    }
+
+    // Shots are only ever appended, so every slot past shellCount is a new shell
+    private void syncNewShells() {
+        Projectiles projectiles = gameWorld.getProjectiles();
+        if (shellBodies.length < projectiles.getCount()) {
+            Body[] resized = new Body[Math.max(projectiles.getCount(), shellBodies.length * 2)];
+            System.arraycopy(shellBodies, 0, resized, 0, shellCount);
+            shellBodies = resized;
+        }
+
+        while (shellCount < projectiles.getCount()) {
+            int i = shellCount++;
+            Body body = obtainShellBody(projectiles.getWidth(i), projectiles.getHeight(i));
+
+            ((Shell) body.getUserData()).team = projectiles.getTeam(i);
+
+            body.setTransform(
+                    toMeters(projectiles.getX(i) + projectiles.getWidth(i) / 2),
+                    toMeters(projectiles.getY(i) + projectiles.getHeight(i) / 2),
+                    projectiles.getAngle(i) * MathUtils.degreesToRadians
+            );
+            body.setLinearVelocity(toMeters(projectiles.getVelocityX(i)), toMeters(projectiles.getVelocityY(i)));
+            body.setActive(true);
+            body.setAwake(true);
+            shellBodies[i] = body;
+        }
+    }
+
+    private void readBackShells(float delta) {
+        Projectiles projectiles = gameWorld.getProjectiles();
+        for (int i = shellCount - 1; i >= 0; i--) {
+            Vector2 bodyPosition = shellBodies[i].getPosition();
+            projectiles.moveTo(i,
+                    toPixels(bodyPosition.x) - projectiles.getWidth(i) / 2,
+                    toPixels(bodyPosition.y) - projectiles.getHeight(i) / 2,
+                    delta);
+
+            if (projectiles.isExpired(i, minX, minY, maxX, maxY)) {
+                projectiles.remove(i);
+                removeShell(i);
+            }
+        }
+    }
+
+    private void resolveHits() {
+        Projectiles projectiles = gameWorld.getProjectiles();
+        for (int hit = 0; hit < hitShells.size; hit++) {
+            int shot = indexOf(hitShells.get(hit));
+
+            // already used up on another tank, or culled
+            if (shot == -1) continue;
+
+            gameWorld.handleHit(shot, hitTanks.get(hit), projectiles.getX(shot), projectiles.getY(shot));
+            removeShell(shot);
+        }
+        hitShells.clear();
+        hitTanks.clear();
+    }
+
+    // mirrors Projectiles.remove: the last shell takes the freed slot
+    private void removeShell(int i) {
+        Body body = shellBodies[i];
+        body.setActive(false);
+        freeShellBodies.add(body);
+
+        int last = --shellCount;
+        shellBodies[i] = shellBodies[last];
+        shellBodies[last] = null;
+    }
+
+    // hits are rare, a scan is cheaper than keeping a body -> slot map up to date
+    private int indexOf(Body body) {
+        for (int i = 0; i < shellCount; i++) {
+            if (shellBodies[i] == body) return i;
+        }
+        return -1;
+    }
+
+    private Body createTankBody(Tank tank) {
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.bullet = false;
+        bodyDef.fixedRotation = true; // orientation comes from the game rules
+        bodyDef.position.set(
+                toMeters(tank.getPositionX() + tank.getWidth() / 2),
+                toMeters(tank.getPositionY() + tank.getHeight() / 2)
+        );
+        bodyDef.angle = tank.getOrientation();
+        Body body = world.createBody(bodyDef);
+
+        shape.setAsBox(toMeters(tank.getWidth() / 2), toMeters(tank.getHeight() / 2));
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        fixtureDef.isSensor = false;
+        fixtureDef.filter.categoryBits = CATEGORY_TANK;
+        fixtureDef.filter.maskBits = CATEGORY_TANK | CATEGORY_SHELL;
+        fixtureDef.filter.groupIndex = 0;
+        body.createFixture(fixtureDef);
+
+        body.setUserData(tank);
+        return body;
+    }
+
+    private Body obtainShellBody(float width, float height) {
+        // reuse a pooled shell of the same size
+        for (int i = freeShellBodies.size - 1; i >= 0; i--) {
+            Shell shell = (Shell) freeShellBodies.get(i).getUserData();
+            if (shell.width == width && shell.height == height) {
+                return freeShellBodies.removeIndex(i);
+            }
+        }
+
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.bullet = true;
+        bodyDef.fixedRotation = true;
+        bodyDef.position.set(0, 0);
+        bodyDef.angle = 0;
+        Body body = world.createBody(bodyDef);
+
+        shape.setAsBox(toMeters(width / 2), toMeters(height / 2));
+        fixtureDef.shape = shape;
+        fixtureDef.density = 0.1f;
+        // Box2D skips continuous collision for real sensors, so shells keep a solid fixture
+        // and preSolve turns the collision response off: they report hits like a sensor would
+        fixtureDef.isSensor = false;
+        fixtureDef.filter.categoryBits = CATEGORY_SHELL;
+        fixtureDef.filter.maskBits = CATEGORY_TANK;
+        fixtureDef.filter.groupIndex = 0;
+        body.createFixture(fixtureDef);
+
+        body.setUserData(new Shell(width, height));
+        return body;
+    }
+
+    // Box2D's category and mask test, plus shells passing through tanks of their own side.
+    // The team is looked up on every contact, so tanks changing sides need no filter update.
+    @Override
+    public boolean shouldCollide(Fixture fixtureA, Fixture fixtureB) {
+        if ((fixtureA.getFilterData().maskBits & fixtureB.getFilterData().categoryBits) == 0
+                || (fixtureA.getFilterData().categoryBits & fixtureB.getFilterData().maskBits) == 0) {
+            return false;
+        }
+
+        Object userDataA = fixtureA.getBody().getUserData();
+        Object userDataB = fixtureB.getBody().getUserData();
+        if (userDataA instanceof Shell && userDataB instanceof Tank) {
+            return ((Shell) userDataA).team != ((Tank) userDataB).getTeam();
+        }
+        if (userDataB instanceof Shell && userDataA instanceof Tank) {
+            return ((Shell) userDataB).team != ((Tank) userDataA).getTeam();
+        }
+        return true;
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+        Body bodyA = contact.getFixtureA().getBody();
+        Body bodyB = contact.getFixtureB().getBody();
+
+        if (bodyA.getUserData() instanceof Shell && bodyB.getUserData() instanceof Tank) {
+            hitShells.add(bodyA);
+            hitTanks.add((Tank) bodyB.getUserData());
+        } else if (bodyB.getUserData() instanceof Shell && bodyA.getUserData() instanceof Tank) {
+            hitShells.add(bodyB);
+            hitTanks.add((Tank) bodyA.getUserData());
+        }
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        // shells never push tanks around
+        if (contact.getFixtureA().getBody().getUserData() instanceof Shell
+                || contact.getFixtureB().getBody().getUserData() instanceof Shell) {
+            contact.setEnabled(false);
+        }
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+    }
+
+    public int getAwakeBodyCount() {
+        int awake = 0;
+        for (Body body : tankBodies) {
+            if (body.isAwake()) awake++;
+        }
+        for (int i = 0; i < shellCount; i++) {
+            if (shellBodies[i].isAwake()) awake++;
+        }
+        return awake;
+    }
+
+    public int getBodyCount() {
+        return world.getBodyCount();
+    }
+
+    private static float toMeters(float pixels) {
+        return pixels / PIXELS_PER_METER;
+    }
+
+    private static float toPixels(float meters) {
+        return meters * PIXELS_PER_METER;
+    }
+
+    @Override
+    public void dispose() {
+        shape.dispose();
+        world.dispose();
+    }
+}
@@ -0,0 +1,122 @@
+package com.gledyson.tanks.physics;
+
+// A rectangle rotated around its center, for the narrowphase after the grid / AABB broadphase.
+// Axes are only recomputed when the orientation changes, moving just shifts the cached corners.
+public class OrientedBox {
+    private float centerX, centerY;
+    private float halfWidth, halfHeight;
+    private float orientation = Float.NaN; // radians
+
+    // local x axis is (cos, sin), local y axis is (-sin, cos)
+    private float cos, sin;
+
+    // counter-clockwise from bottom-left: x0, y0, x1, y1, ...
+    private final float[] corners = new float[8];
+
+    // axis-aligned bounds of the rotated box
+    private float minX, minY, maxX, maxY;
+
+    public OrientedBox set(float centerX, float centerY, float halfWidth, float halfHeight, float orientation) {
+        boolean rotated = orientation != this.orientation;
+        if (!rotated && centerX == this.centerX && centerY == this.centerY
+                && halfWidth == this.halfWidth && halfHeight == this.halfHeight) {
+            return this;
+        }
+
+        if (rotated) {
+            this.orientation = orientation;
+            cos = (float) Math.cos(orientation);
+            sin = (float) Math.sin(orientation);
+        }
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+
+        float axisXx = cos * halfWidth, axisXy = sin * halfWidth;
+        float axisYx = -sin * halfHeight, axisYy = cos * halfHeight;
+
+        corners[0] = centerX - axisXx - axisYx;
+        corners[1] = centerY - axisXy - axisYy;
+        corners[2] = centerX + axisXx - axisYx;
+        corners[3] = centerY + axisXy - axisYy;
+        corners[4] = centerX + axisXx + axisYx;
+        corners[5] = centerY + axisXy + axisYy;
+        corners[6] = centerX - axisXx + axisYx;
+        corners[7] = centerY - axisXy + axisYy;
+
+        float extentX = Math.abs(axisXx) + Math.abs(axisYx);
+        float extentY = Math.abs(axisXy) + Math.abs(axisYy);
+        minX = centerX - extentX;
+        maxX = centerX + extentX;
+        minY = centerY - extentY;
+        maxY = centerY + extentY;
+        return this;
+    }
+
+    public boolean boundsOverlap(OrientedBox other) {
+        return minX < other.maxX && maxX > other.minX && minY < other.maxY && maxY > other.minY;
+    }
+
+    // Separating axis test: the boxes overlap unless one of the four edge axes separates them
+    public boolean overlaps(OrientedBox other) {
+        if (!boundsOverlap(other)) return false;
+
+        return !separates(cos, sin, other)
+                && !separates(-sin, cos, other)
+                && !separates(other.cos, other.sin, other)
+                && !separates(-other.sin, other.cos, other);
+    }
+
+    private boolean separates(float axisX, float axisY, OrientedBox other) {
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        float otherMin = Float.MAX_VALUE, otherMax = -Float.MAX_VALUE;
+        for (int i = 0; i < 8; i += 2) {
+            float projection = corners[i] * axisX + corners[i + 1] * axisY;
+            if (projection < min) min = projection;
+            if (projection > max) max = projection;
+
+            float otherProjection = other.corners[i] * axisX + other.corners[i + 1] * axisY;
+            if (otherProjection < otherMin) otherMin = otherProjection;
+            if (otherProjection > otherMax) otherMax = otherProjection;
+        }
+        return max <= otherMin || otherMax <= min;
+    }
+
+    // Sweeps a circle of the given radius from start to end against this box.
+    // The segment is moved into the box's local frame, where it's a plain slab test.
+    // Returns the earliest time of impact in [0, 1], or Sweep.NO_HIT.
+    public float sweep(float startX, float startY, float endX, float endY, float radius) {
+        float relativeX = startX - centerX, relativeY = startY - centerY;
+        float localStartX = relativeX * cos + relativeY * sin;
+        float localStartY = -relativeX * sin + relativeY * cos;
+
+        relativeX = endX - centerX;
+        relativeY = endY - centerY;
+        float localEndX = relativeX * cos + relativeY * sin;
+        float localEndY = -relativeX * sin + relativeY * cos;
+
+        return Sweep.boxCast(localStartX, localStartY, localEndX, localEndY, radius, radius,
+                -halfWidth, -halfHeight, halfWidth, halfHeight);
+    }
+
+    public float[] getCorners() {
+        return corners;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gledyson.tanks.physics;
+
+import com.gledyson.tanks.objects.Projectiles;
+
+// The swept test of one shot against tank boxes, shared by GameWorld and the ECS ProjectileSystem.
+// set() takes the path the shot moved along this step, offer() each candidate box, and
+// the first box along the path is the one hit.
+public class ShotSweep {
+    private float halfWidth, halfHeight;
+    private float startX, startY, endX, endY;
+    private float radius;
+    private float timeOfImpact;
+
+    public void set(Projectiles projectiles, int shot) {
+        halfWidth = projectiles.getWidth(shot) / 2;
+        halfHeight = projectiles.getHeight(shot) / 2;
+        startX = projectiles.getPreviousX(shot) + halfWidth;
+        startY = projectiles.getPreviousY(shot) + halfHeight;
+        endX = projectiles.getX(shot) + halfWidth;
+        endY = projectiles.getY(shot) + halfHeight;
+
+        // a shell is long and thin along its flight path:
+        // sweep its width as a radius and reach forward to the tip
+        float velocityX = projectiles.getVelocityX(shot);
+        float velocityY = projectiles.getVelocityY(shot);
+        float speed = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        if (speed > 0) {
+            endX += velocityX / speed * halfHeight;
+            endY += velocityY / speed * halfHeight;
+        }
+        radius = halfWidth;
+        timeOfImpact = 2f;
+    }
+
+    // Returns true if the shot hits box before every box offered so far
+    public boolean offer(OrientedBox box) {
+        // cheap sweep against the rotated box's bounds first, then the exact oriented test
+        if (Sweep.boxCast(startX, startY, endX, endY, radius, radius,
+                box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY()) == Sweep.NO_HIT) {
+            return false;
+        }
+
+        float time = box.sweep(startX, startY, endX, endY, radius);
+        if (time != Sweep.NO_HIT && time < timeOfImpact) {
+            timeOfImpact = time;
+            return true;
+        }
+        return false;
+    }
+
+    // Bounds of everything the shot swept through, for the broadphase
+    public float getMinX() {
+        return Math.min(startX, endX) - radius;
+    }
+
+    public float getMinY() {
+        return Math.min(startY, endY) - radius;
+    }
+
+    public float getMaxX() {
+        return Math.max(startX, endX) + radius;
+    }
+
+    public float getMaxY() {
+        return Math.max(startY, endY) + radius;
+    }
+
+    // Where the shot's bottom-left corner was at the first hit
+    public float getHitX() {
+        return startX + (endX - startX) * timeOfImpact - halfWidth;
+    }
+
+    public float getHitY() {
+        return startY + (endY - startY) * timeOfImpact - halfHeight;
+    }
+}
@@ -0,0 +1,128 @@
+package com.gledyson.tanks.physics;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Uniform grid broadphase. Items are int ids inserted with their bounds every step,
+// queries only look at the cells the query bounds cover.
+// Cells are linked lists kept in primitive arrays, so rebuilding the grid doesn't allocate.
+public class SpatialGrid {
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    // first entry of every cell, -1 when empty
+    private final int[] cellHeads;
+
+    // entries: one per (item, cell) pair
+    private int[] entryItems;
+    private int[] entryNext;
+    private int entryCount;
+
+    // marks items already reported by the current query
+    private int[] itemStamps;
+    private int stamp;
+
+    public SpatialGrid(float originX, float originY, float width, float height, float cellSize) {
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+        this.cellHeads = new int[columns * rows];
+        this.entryItems = new int[64];
+        this.entryNext = new int[64];
+        this.itemStamps = new int[64];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(cellHeads, -1);
+        entryCount = 0;
+    }
+
+    public void insert(int item, float minX, float minY, float maxX, float maxY) {
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+
+                if (entryCount == entryItems.length) {
+                    entryItems = Arrays.copyOf(entryItems, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                entryItems[entryCount] = item;
+                entryNext[entryCount] = cellHeads[cell];
+                cellHeads[cell] = entryCount;
+                entryCount++;
+            }
+        }
+
+        if (item >= itemStamps.length) {
+            itemStamps = Arrays.copyOf(itemStamps, Math.max(item + 1, itemStamps.length * 2));
+        }
+    }
+
+    // Adds every item sharing a cell with the given bounds to out, each one once.
+    // Returns how many were added. Items still need an exact overlap test.
+    public int query(float minX, float minY, float maxX, float maxY, IntArray out) {
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+
+        if (++stamp == 0) {
+            // wrapped around, forget old stamps
+            Arrays.fill(itemStamps, 0);
+            stamp = 1;
+        }
+
+        int found = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int entry = cellHeads[row * columns + column]; entry != -1; entry = entryNext[entry]) {
+                    int item = entryItems[entry];
+                    if (itemStamps[item] == stamp) continue;
+
+                    itemStamps[item] = stamp;
+                    out.add(item);
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    // bounds outside the grid are clamped into the border cells
+    private int column(float x) {
+        int column = (int) ((x - originX) / cellSize);
+        if (column < 0) return 0;
+        return column >= columns ? columns - 1 : column;
+    }
+
+    private int row(float y) {
+        int row = (int) ((y - originY) / cellSize);
+        if (row < 0) return 0;
+        return row >= rows ? rows - 1 : row;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,61 @@
+package com.gledyson.tanks.physics;
+
+// Continuous collision tests, so fast shots can't tunnel through a tank between two steps
+public final class Sweep {
+    public static final float NO_HIT = -1f;
+
+    private Sweep() {
+    }
+
+    // Moves a box of the given half size from start to end (centers) against an axis-aligned box.
+    // Returns the earliest time of impact in [0, 1], or NO_HIT.
+    public static float boxCast(float startX, float startY, float endX, float endY,
+                                float halfWidth, float halfHeight,
+                                float minX, float minY, float maxX, float maxY) {
+        // grow the target by the moving box, then it's a segment test
+        return segmentCast(startX, startY, endX, endY,
+                minX - halfWidth, minY - halfHeight, maxX + halfWidth, maxY + halfHeight);
+    }
+
+    // Slab test of the segment start -> end against an axis-aligned box.
+    // Returns the earliest time of impact in [0, 1] (0 if it starts inside), or NO_HIT.
+    public static float segmentCast(float startX, float startY, float endX, float endY,
+                                    float minX, float minY, float maxX, float maxY) {
+        float enter = 0f;
+        float exit = 1f;
+
+        float deltaX = endX - startX;
+        if (deltaX == 0f) {
+            if (startX < minX || startX > maxX) return NO_HIT;
+        } else {
+            float near = (minX - startX) / deltaX;
+            float far = (maxX - startX) / deltaX;
+            if (near > far) {
+                float swap = near;
+                near = far;
+                far = swap;
+            }
+            if (near > enter) enter = near;
+            if (far < exit) exit = far;
+            if (enter > exit) return NO_HIT;
+        }
+
+        float deltaY = endY - startY;
+        if (deltaY == 0f) {
+            if (startY < minY || startY > maxY) return NO_HIT;
+        } else {
+            float near = (minY - startY) / deltaY;
+            float far = (maxY - startY) / deltaY;
+            if (near > far) {
+                float swap = near;
+                near = far;
+                far = swap;
+            }
+            if (near > enter) enter = near;
+            if (far < exit) exit = far;
+            if (enter > exit) return NO_HIT;
+        }
+
+        return enter;
+    }
+}
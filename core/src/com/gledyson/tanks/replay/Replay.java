@@ -0,0 +1,179 @@
+package com.gledyson.tanks.replay;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.gledyson.tanks.effects.ShakeEffect;
+import com.gledyson.tanks.spawn.StressScenario;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.GameWorld;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// A recorded match: what's needed to set it up again, the player input of every step and
+// world checksums to check the re-simulation against.
+// Inputs change rarely, so they are kept as runs of (input, steps). In the file:
+//
+//   magic, version, seed, scenario name, physics flag, step length,
+//   run count, runs as (input byte, steps int), checksum count, checksums
+//
+// A checksum is taken every CHECKSUM_INTERVAL steps and at the end.
+public class Replay {
+    public static final int CHECKSUM_INTERVAL = 60;
+
+    private static final int MAGIC = 0x54524550; // "TREP"
+    private static final int VERSION = 1;
+
+    private final long seed;
+    private final StressScenario scenario;
+    private final boolean physics;
+    private final float step;
+
+    private final IntArray runInputs;
+    private final IntArray runLengths;
+    private final IntArray checksums;
+    private int stepCount;
+
+    public Replay(long seed, StressScenario scenario, boolean physics, float step) {
+        this.seed = seed;
+        this.scenario = scenario;
+        this.physics = physics;
+        this.step = step;
+        this.runInputs = new IntArray();
+        this.runLengths = new IntArray();
+        this.checksums = new IntArray();
+    }
+
+    // Seeds the random generators and prepares the world for the recorded match.
+    // Call it on a new world, before the first step.
+    public WaveSpawner setUp(GameWorld world) {
+        MathUtils.random.setSeed(seed);
+        ShakeEffect.setSeed(seed);
+        world.setDeterministic(true);
+        if (physics) {
+            world.enablePhysics();
+        }
+        return scenario.apply(world);
+    }
+
+    void addStep(int input) {
+        int last = runInputs.size - 1;
+        if (last >= 0 && runInputs.get(last) == input) {
+            runLengths.incr(last, 1);
+        } else {
+            runInputs.add(input);
+            runLengths.add(1);
+        }
+        stepCount++;
+    }
+
+    void addChecksum(int checksum) {
+        checksums.add(checksum);
+    }
+
+    public void write(FileHandle file) {
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeUTF(scenario.name());
+            out.writeBoolean(physics);
+            out.writeFloat(step);
+
+            out.writeInt(runInputs.size);
+            for (int i = 0; i < runInputs.size; i++) {
+                out.writeByte(runInputs.get(i));
+                out.writeInt(runLengths.get(i));
+            }
+            out.writeInt(checksums.size);
+            for (int i = 0; i < checksums.size; i++) {
+                out.writeInt(checksums.get(i));
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing replay " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    public static Replay read(FileHandle file) {
+        DataInputStream in = new DataInputStream(file.read(4096));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a replay: " + file.path());
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new GdxRuntimeException("Unsupported replay version " + version + ": " + file.path());
+            }
+            long seed = in.readLong();
+            StressScenario scenario = StressScenario.forName(in.readUTF());
+            boolean physics = in.readBoolean();
+            float step = in.readFloat();
+            Replay replay = new Replay(seed, scenario, physics, step);
+
+            int runCount = in.readInt();
+            for (int i = 0; i < runCount; i++) {
+                int input = in.readUnsignedByte();
+                int length = in.readInt();
+                replay.runInputs.add(input);
+                replay.runLengths.add(length);
+                replay.stepCount += length;
+            }
+            int checksumCount = in.readInt();
+            for (int i = 0; i < checksumCount; i++) {
+                replay.checksums.add(in.readInt());
+            }
+            return replay;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading replay " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public StressScenario getScenario() {
+        return scenario;
+    }
+
+    public boolean isPhysics() {
+        return physics;
+    }
+
+    public float getStep() {
+        return step;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public int getRunCount() {
+        return runInputs.size;
+    }
+
+    public int getRunInput(int run) {
+        return runInputs.get(run);
+    }
+
+    public int getRunLength(int run) {
+        return runLengths.get(run);
+    }
+
+    public int getChecksumCount() {
+        return checksums.size;
+    }
+
+    public int getChecksum(int i) {
+        return checksums.get(i);
+    }
+}
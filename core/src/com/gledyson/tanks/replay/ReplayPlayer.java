@@ -0,0 +1,64 @@
+package com.gledyson.tanks.replay;
+
+import com.gledyson.tanks.world.GameWorld;
+
+// Feeds a Replay's inputs back into a world set up by Replay.setUp(), one step at a time:
+//
+//   while (!player.isFinished()) {
+//       spawner.update(replay.getStep());
+//       world.step(replay.getStep(), player.nextInput());
+//       player.verify();
+//   }
+//
+// verify() compares the world with the recorded checksums and remembers where they first differ.
+public class ReplayPlayer {
+    private final Replay replay;
+    private final GameWorld world;
+
+    private int run;
+    private int stepsLeftInRun;
+    private int step;
+    private int checksum;
+    private int firstMismatch = -1;
+
+    public ReplayPlayer(Replay replay, GameWorld world) {
+        this.replay = replay;
+        this.world = world;
+        this.stepsLeftInRun = replay.getRunCount() > 0 ? replay.getRunLength(0) : 0;
+    }
+
+    public int nextInput() {
+        while (stepsLeftInRun == 0) {
+            run++;
+            stepsLeftInRun = replay.getRunLength(run);
+        }
+        stepsLeftInRun--;
+        step++;
+        return replay.getRunInput(run);
+    }
+
+    // After each step. Returns false if the world drifted from the recording at this step.
+    public boolean verify() {
+        if (step % Replay.CHECKSUM_INTERVAL != 0 && step != replay.getStepCount()) return true;
+        if (checksum >= replay.getChecksumCount()) return true;
+
+        boolean matches = WorldChecksum.of(world) == replay.getChecksum(checksum++);
+        if (!matches && firstMismatch < 0) {
+            firstMismatch = step;
+        }
+        return matches;
+    }
+
+    public boolean isFinished() {
+        return step >= replay.getStepCount();
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    // step at which the first checksum differed, -1 while everything matched
+    public int getFirstMismatch() {
+        return firstMismatch;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gledyson.tanks.replay;
+
+import com.gledyson.tanks.world.GameWorld;
+
+// Records a match into a Replay. Call record() after every world step with that step's input,
+// and finish() once the match is over.
+public class ReplayRecorder {
+    private final Replay replay;
+    private final GameWorld world;
+
+    public ReplayRecorder(Replay replay, GameWorld world) {
+        this.replay = replay;
+        this.world = world;
+    }
+
+    public void record(int input) {
+        replay.addStep(input);
+        if (replay.getStepCount() % Replay.CHECKSUM_INTERVAL == 0) {
+            replay.addChecksum(WorldChecksum.of(world));
+        }
+    }
+
+    // Adds the checksum of the last steps, if they didn't end on an interval
+    public Replay finish() {
+        if (replay.getStepCount() % Replay.CHECKSUM_INTERVAL != 0) {
+            replay.addChecksum(WorldChecksum.of(world));
+        }
+        return replay;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+}
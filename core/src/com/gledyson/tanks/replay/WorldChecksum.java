@@ -0,0 +1,46 @@
+package com.gledyson.tanks.replay;
+
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.world.GameWorld;
+
+// Hash of the simulation state: the clock, active tanks and shots.
+// Works on the float bits, so two worlds only match if they are bit for bit the same.
+public final class WorldChecksum {
+    private WorldChecksum() {
+    }
+
+    public static int of(GameWorld world) {
+        int hash = 17;
+        hash = mix(hash, world.getElapsedTime());
+
+        Array<Tank> tanks = world.getTanks();
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            if (!tank.isActive()) continue;
+
+            hash = mix(hash, tank.getId());
+            hash = mix(hash, tank.getPositionX());
+            hash = mix(hash, tank.getPositionY());
+            hash = mix(hash, tank.getOrientation());
+            hash = mix(hash, tank.getHealth());
+        }
+
+        Projectiles projectiles = world.getProjectiles();
+        hash = mix(hash, projectiles.getCount());
+        for (int shot = 0; shot < projectiles.getCount(); shot++) {
+            hash = mix(hash, projectiles.getX(shot));
+            hash = mix(hash, projectiles.getY(shot));
+        }
+        return hash;
+    }
+
+    private static int mix(int hash, float value) {
+        return mix(hash, Float.floatToIntBits(value));
+    }
+
+    private static int mix(int hash, int value) {
+        return 31 * hash + value;
+    }
+}
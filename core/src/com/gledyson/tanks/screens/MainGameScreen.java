@@ -9,25 +9,36 @@ import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.gledyson.tanks.TanksGame;
-import com.gledyson.tanks.effects.Explosion;
+import com.gledyson.tanks.debug.FrameProfiler;
+import com.gledyson.tanks.debug.ProfilerHud;
+import com.gledyson.tanks.ecs.EcsWorld;
+import com.gledyson.tanks.effects.EffectType;
+import com.gledyson.tanks.effects.EffectsManager;
 import com.gledyson.tanks.effects.ShakeEffect;
-import com.gledyson.tanks.effects.TrackPrint;
-import com.gledyson.tanks.objects.EnemyTank;
-import com.gledyson.tanks.objects.PlayerTank;
-import com.gledyson.tanks.objects.Shot;
+import com.gledyson.tanks.effects.TrackDecalLayer;
+import com.gledyson.tanks.objects.Projectiles;
 import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
 import com.gledyson.tanks.objects.TestBackground;
+import com.gledyson.tanks.replay.Replay;
+import com.gledyson.tanks.replay.ReplayRecorder;
+import com.gledyson.tanks.snapshot.WorldSnapshot;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.FixedTimestep;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.PlayerInput;
+import com.gledyson.tanks.world.WorldListener;
+
+public class MainGameScreen implements Screen, WorldListener {
+    private static final String TAG = "MainGameScreen";
 
-import java.util.Iterator;
-
-public class MainGameScreen implements Screen {
     private final TanksGame game;
     private final Controller controller;
 
@@ -35,18 +46,17 @@ public class MainGameScreen implements Screen {
     private final OrthographicCamera hudCamera;
     private final Viewport viewport;
 
-    private final PlayerTank playerTank;
-    private final Array<EnemyTank> enemyTankList;
+    // the match runs on one of these, the other is null (see TanksGame.ecs)
+    private final GameWorld world;
+    private final EcsWorld ecsWorld;
+    private final WaveSpawner spawner; // null with EcsWorld
     private final TestBackground background;
-    private final Rectangle collisionBox;
+    private final TrackDecalLayer trackLayer;
     private final TextureAtlas textureAtlas;
 
-    private final Array<Explosion> explosions;
-    private final TextureRegion[] explosionFrames;
-    private final TextureRegion[] smokeExplosionFrames;
-
-    private static final float EXPLOSION_FRAME_INTERVAL = 0.125f;
-    private static final float SMOKE_EXPLOSION_FRAME_INTERVAL = 0.05f;
+    // Explosions and smoke, the oldest ones are cut short past this many
+    private static final int MAX_EFFECTS = 64;
+    private final EffectsManager effects;
 
     // Sound and music
     private final Music engineSound;
@@ -57,6 +67,27 @@ public class MainGameScreen implements Screen {
     // Timer to pause
     private float timeSincePaused;
 
+    // Simulation runs at a fixed rate, rendering interpolates between the last two steps
+    private static final float SIMULATION_STEP = 1 / 60f;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private final FixedTimestep timestep;
+
+    // Profiling: F3 shows the overlay, F4 writes the recorded frames to a CSV file.
+    // With an allocation counter the profiler starts enabled and logs an allocation report on F4 and on exit.
+    private static final int PROFILED_FRAMES = 300;
+    private static final String PROFILE_FILE = "frame-profile.csv";
+    private static final long ALLOCATION_THRESHOLD = 1024; // bytes per frame
+    private final FrameProfiler profiler;
+    private final ProfilerHud profilerHud;
+    private final StringBuilder hudText = new StringBuilder(16);
+
+    // Replay recording, null when off. F5 stops it and saves the match so far.
+    private static final String REPLAY_FILE = "session.replay";
+    private ReplayRecorder replayRecorder;
+
+    // F6 quick-saves the match, F7 goes back to the quick save
+    private final WorldSnapshot quickSave = new WorldSnapshot();
+
     public MainGameScreen(TanksGame game) {
         this.game = game;
 
@@ -69,59 +100,30 @@ public class MainGameScreen implements Screen {
         // load textures
         this.textureAtlas = new TextureAtlas(Gdx.files.internal("textures.atlas"));
 
-        TextureRegion blueTankTexture = textureAtlas.findRegion("tank_blue");
-        TextureRegion redTankTexture = textureAtlas.findRegion("tank_red");
-
-        TextureRegion blueTankDestroyedTexture = textureAtlas.findRegion("tankBody_blue_outline");
-        TextureRegion redTankDestroyedTexture = textureAtlas.findRegion("tankBody_red_outline");
-
         TextureRegion grassTexture = textureAtlas.findRegion("tileGrass1");
-        TextureRegion playerShotTexture = textureAtlas.findRegion("shotThin");
-        TextureRegion enemyShotTexture = textureAtlas.findRegion("shotRed");
-
-        TextureRegion tracksTexture = textureAtlas.findRegion("tracksSmall");
-
-        // create player and enemy tanks
-        this.playerTank = new PlayerTank(
-                game.WIDTH / 2f, game.HEIGHT / 4f,
-                42, 46,
-                180,
-                blueTankTexture,
-                blueTankDestroyedTexture,
-                playerShotTexture,
-                tracksTexture,
-                8, 26,
-                650, 3.5f
-        );
-
-        enemyTankList = new Array<>();
-        spawnEnemyTank(
-                redTankTexture,
-                redTankDestroyedTexture,
-                enemyShotTexture,
-                tracksTexture,
-                game.WIDTH / 2f, 3 * game.HEIGHT / 4f,
-                23f
-        );
-        spawnEnemyTank(
-                redTankTexture,
-                redTankDestroyedTexture,
-                enemyShotTexture,
-                tracksTexture,
-                100, 3 * game.HEIGHT / 4f,
-                9f
-        );
-        spawnEnemyTank(
-                redTankTexture,
-                redTankDestroyedTexture,
-                enemyShotTexture,
-                tracksTexture,
-                410, 3 * game.HEIGHT / 4f,
-                0f
-        );
+
+        // create the player, enemies come in waves
+        TankFactory tankFactory = new TankFactory(textureAtlas);
+        if (game.ecs) {
+            this.world = null;
+            this.spawner = null;
+            this.ecsWorld = new EcsWorld(game.WIDTH, game.HEIGHT, tankFactory);
+            ecsWorld.spawnDefaultEnemies(tankFactory);
+        } else {
+            this.ecsWorld = null;
+            this.world = new GameWorld(game.WIDTH, game.HEIGHT, tankFactory, this);
+            if (game.recordReplay) {
+                Replay replay = new Replay(MathUtils.random.nextLong(), game.scenario, false, SIMULATION_STEP);
+                this.spawner = replay.setUp(world);
+                this.replayRecorder = new ReplayRecorder(replay, world);
+            } else {
+                this.spawner = game.scenario.apply(world);
+            }
+        }
 
         // create terrain
-        this.background = new TestBackground(grassTexture, 64);
+        this.background = new TestBackground(grassTexture, 64, game.WIDTH, game.HEIGHT);
+        this.trackLayer = new TrackDecalLayer(game.WIDTH, game.HEIGHT);
 
         // Init sounds
         engineSound = Gdx.audio.newMusic(Gdx.files.internal("engine.wav"));
@@ -131,29 +133,24 @@ public class MainGameScreen implements Screen {
         tankExplodedSound = Gdx.audio.newSound(Gdx.files.internal("tank_exploded.wav"));
 
         // Init
-        collisionBox = new Rectangle();
         controller = new Controller(game, textureAtlas);
+        timestep = new FixedTimestep(SIMULATION_STEP, MAX_STEPS_PER_FRAME);
 
         // Explosions
-        explosions = new Array<>();
-
-        // texture file names
-        String[] explosionTextureNames = {
-                "explosion1", "explosion2",
-                "explosion3", "explosion4",
-                "explosion5"};
-        String[] smokeExplosionTextureNames = {"explosionSmoke1", "explosionSmoke2",
-                "explosionSmoke3", "explosionSmoke4", "explosionSmoke5"};
-
-        // get textures from atlas and build frames
-        explosionFrames = new TextureRegion[explosionTextureNames.length];
-        smokeExplosionFrames = new TextureRegion[smokeExplosionTextureNames.length];
-
-        for (int i = 0; i < explosionFrames.length; i++) {
-            explosionFrames[i] = textureAtlas.findRegion(explosionTextureNames[i]);
+        effects = new EffectsManager(textureAtlas, MAX_EFFECTS);
+        if (ecsWorld != null) {
+            ecsWorld.enableRendering(game.batch, trackLayer, effects);
+        }
+
+        profiler = new FrameProfiler(PROFILED_FRAMES);
+        profiler.setGLProfiler(new GLProfiler(Gdx.graphics));
+        profilerHud = new ProfilerHud(profiler, game.font);
+        if (world != null) {
+            world.setProfiler(profiler);
         }
-        for (int i = 0; i < explosionFrames.length; i++) {
-            smokeExplosionFrames[i] = textureAtlas.findRegion(smokeExplosionTextureNames[i]);
+        if (game.allocationCounter != null) {
+            profiler.setAllocationCounter(game.allocationCounter, ALLOCATION_THRESHOLD);
+            profiler.setEnabled(true);
         }
     }
 
@@ -165,6 +162,79 @@ public class MainGameScreen implements Screen {
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0, 0, 0, 1);
+
+        // update timers
+        timeSincePaused += delta;
+
+        // player input is sampled once per frame and applied to every step
+        profiler.begin(FrameProfiler.INPUT);
+        int input = pollPlayerInput();
+        pollDebugKeys();
+        profiler.end(FrameProfiler.INPUT);
+
+        // run as many fixed steps as the elapsed time allows
+        int steps = timestep.advance(delta);
+        for (int i = 0; i < steps; i++) {
+            if (ecsWorld != null) {
+                ecsWorld.step(timestep.getStep(), input);
+                continue;
+            }
+
+            profiler.begin(FrameProfiler.SPAWN);
+            spawner.update(timestep.getStep());
+            profiler.end(FrameProfiler.SPAWN);
+
+            world.step(timestep.getStep(), input);
+            if (replayRecorder != null) {
+                replayRecorder.record(input);
+            }
+        }
+        if (steps > 0) {
+            updateEngineSound();
+        }
+
+        draw(delta, timestep.getAlpha());
+        profiler.endFrame(delta);
+    }
+
+    private void pollDebugKeys() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            profiler.setEnabled(!profiler.isEnabled());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4) && Gdx.files.isLocalStorageAvailable()) {
+            profiler.exportCsv(Gdx.files.local(PROFILE_FILE));
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4) && profiler.isTrackingAllocations()) {
+            Gdx.app.log(TAG, profiler.getAllocationReport());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5) && replayRecorder != null && Gdx.files.isLocalStorageAvailable()) {
+            Replay replay = replayRecorder.finish();
+            replay.write(Gdx.files.local(REPLAY_FILE));
+            Gdx.app.log(TAG, "Saved " + replay.getStepCount() + " steps to " + REPLAY_FILE);
+            replayRecorder = null;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F6) && world != null) {
+            quickSave.save(world, spawner, effects);
+            Gdx.app.log(TAG, "Quick saved, " + quickSave.getSize() + " bytes");
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F7) && world != null && !quickSave.isEmpty()) {
+            quickSave.restore(world, spawner, effects);
+            if (replayRecorder != null) {
+                // the recording can't follow a jump back in time
+                replayRecorder = null;
+                Gdx.app.log(TAG, "Replay recording stopped by the quick load");
+            }
+        }
+    }
+
+    private void draw(float delta, float alpha) {
+        // stamp new track prints and fade old ones (off-screen, before the main batch)
+        profiler.begin(FrameProfiler.TRACKS);
+        trackLayer.update(game.batch, delta);
+        profiler.end(FrameProfiler.TRACKS);
+
+        profiler.begin(FrameProfiler.DRAW);
+
         hudCamera.update();
         camera.update();
         game.batch.setProjectionMatrix(camera.combined);
@@ -177,326 +247,141 @@ public class MainGameScreen implements Screen {
             camera.setToOrtho(false, game.WIDTH, game.HEIGHT);
         }
 
-        // player input
-        handlePlayerInput(delta);
+        // Draw background, baked into a SpriteCache (outside the batch)
+        background.draw(camera);
 
         /* START DRAWING */
         game.batch.begin();
 
-        // update timers
-        timeSincePaused += delta;
-        playerTank.update(delta);
-
-        // Draw background
-        background.draw(game);
-
-        // Update and draw tank tracks
-        updateAndDrawTracks(delta);
+        // Draw tank tracks
+        trackLayer.draw(game.batch);
 
-        // Draw tanks
-        playerTank.draw(game.batch);
-        updateAndDrawEnemyTanks(delta);
-
-        // Draw shots
-        // Remove old shots
-        drawAndUpdateShots(playerTank, delta);
+        if (ecsWorld != null) {
+            // RenderSystem draws tanks and shots
+            ecsWorld.draw(alpha);
+        } else {
+            // Draw tanks
+            world.getPlayerTank().draw(game.batch, alpha);
+            for (Tank enemyTank : world.getEnemyTanks()) {
+                enemyTank.draw(game.batch, alpha);
+            }
 
-        // Draw HUD
-        game.font.draw(game.batch, "FPS: " + Gdx.graphics.getFramesPerSecond(), 16, hudCamera.viewportHeight - 16);
+            // Draw shots
+            drawShots(alpha);
+        }
 
-        // Check collisions
-        evaluateCollisions();
+        // Draw HUD, the text is rebuilt in place instead of concatenated every frame
+        hudText.setLength(0);
+        hudText.append("FPS: ").append(Gdx.graphics.getFramesPerSecond());
+        game.font.draw(game.batch, hudText, 16, hudCamera.viewportHeight - 16);
+        if (profiler.isEnabled()) {
+            profilerHud.draw(game.batch, 16, hudCamera.viewportHeight - 16 - game.font.getLineHeight());
+        }
 
         // Update and draw explosions
         updateAndDrawExplosions(delta);
 
         /* END DRAWING */
         game.batch.end();
+        profiler.end(FrameProfiler.DRAW);
 
         // render controller (has to be after main batch.end())
         if (Gdx.app.getType() == Application.ApplicationType.Android) {
+            profiler.begin(FrameProfiler.CONTROLLER);
             controller.draw();
+            profiler.end(FrameProfiler.CONTROLLER);
         }
     }
 
-    private void spawnEnemyTank(
-            TextureRegion tankTexture,
-            TextureRegion destroyedTankTexture,
-            TextureRegion shotTexture,
-            TextureRegion tracksTexture,
-            float centerX, float centerY,
-            float angle
-    ) {
-        enemyTankList.add(new EnemyTank(
-                centerX, centerY,
-                38, 46,
-                angle,
-                tankTexture,
-                destroyedTankTexture,
-                shotTexture,
-                tracksTexture,
-                21, 38,
-                800, 4.0f,
-                playerTank
-        ));
-    }
-
-    private void updateAndDrawEnemyTanks(float delta) {
-        for (Tank enemyTank : enemyTankList) {
-            enemyTank.update(delta);
-            enemyTank.draw(game.batch);
-
-            if (!enemyTank.isDead() && enemyTank.canFire()) {
-                enemyTank.fire(enemyTank, shotSound);
-            }
-
-            drawAndUpdateShots(enemyTank, delta);
+    @Override
+    public void onShotFired(Tank tank) {
+        shotSound.play();
+        if (tank == world.getPlayerTank()) {
+            ShakeEffect.shakeIt(3f, .1f);
         }
     }
 
-    private void updateAndDrawTracks(float delta) {
-        // player tank
-        Array.ArrayIterator<TrackPrint> iterator = playerTank.getTracks().iterator();
-        while (iterator.hasNext()) {
-            TrackPrint trackprint = iterator.next();
-
-            trackprint.update(delta);
-            if (trackprint.shouldFade()) {
-                iterator.remove();
-            } else {
-                trackprint.draw(game.batch);
-            }
-        }
-
-        // enemy tanks
-        for (Tank enemyTank : enemyTankList) {
-            iterator = enemyTank.getTracks().iterator();
-            while (iterator.hasNext()) {
-                TrackPrint trackprint = iterator.next();
-
-                trackprint.update(delta);
-                if (trackprint.shouldFade()) {
-                    iterator.remove();
-                } else {
-                    trackprint.draw(game.batch);
-                }
-            }
-        }
+    @Override
+    public void onTankHit(Tank tank, float hitX, float hitY) {
+        tankHitSound.play();
+        effects.spawn(EffectType.SMOKE_EXPLOSION, hitX, hitY);
     }
 
-    private void evaluateCollisions() {
-
-        // Check every shot of playerTank
-        Array.ArrayIterator<Shot> iterator = playerTank.getShots().iterator();
-        while (iterator.hasNext()) {
-            Shot shot = iterator.next();
-
-            for (Tank enemyTank : enemyTankList) {
-                // if shell hits
-                if (shot.intersects(enemyTank.getBoundingBox())) {
-                    handleHit(shot, enemyTank, iterator);
-                }
-            }
-        }
-
-        // Check every enemy tank's shot
-        for (Tank enemyTank : enemyTankList) {
-            iterator = enemyTank.getShots().iterator();
-            while (iterator.hasNext()) {
-                Shot shot = iterator.next();
-
-                // if shell hits
-                if (shot.intersects(playerTank.getBoundingBox())) {
-                    handleHit(shot, playerTank, iterator);
-                }
-            }
-        }
+    @Override
+    public void onTankDestroyed(Tank tank) {
+        tankExplodedSound.play();
+        ShakeEffect.shakeIt(4f, .2f);
+        effects.spawn(EffectType.EXPLOSION, tank.getPositionX(), tank.getPositionY());
     }
 
-    public void handleHit(Shot shot, Tank tank, Iterator<Shot> iterator) {
-        // Check if already dead
-        if (tank.isDead()) {
-            tankHitSound.play();
-            iterator.remove();
-            return;
-        }
+    @Override
+    public void onWreckHit(Tank tank) {
+        tankHitSound.play();
+    }
 
-        // if tank is dead
-        if (tank.takeDamageAndCheckDestroyed(shot.getDamage())) {
-            tankExplodedSound.play();
-            ShakeEffect.shakeIt(4f, .2f);
-            explosions.add(new Explosion(
-                    explosionFrames,
-                    EXPLOSION_FRAME_INTERVAL,
-                    tank.getPositionX(),
-                    tank.getPositionY()
-            ));
-        } else {
-            tankHitSound.play();
-            explosions.add(new Explosion(
-                    smokeExplosionFrames,
-                    SMOKE_EXPLOSION_FRAME_INTERVAL,
-                    shot.getPositionX(),
-                    shot.getPositionY()
-            ));
-        }
-        // TODO fix out of bounds bug
-        iterator.remove(); // removes the shot after hit
+    @Override
+    public void onTrackPrinted(Tank tank, float x, float y, float angle) {
+        trackLayer.stamp(tank.getTracksTexture(), x, y, angle);
     }
 
-    public void drawAndUpdateShots(Tank tank, float deltaTime) {
-        Array.ArrayIterator<Shot> iterator = tank.getShots().iterator();
-        while (iterator.hasNext()) {
-            Shot shot = iterator.next();
-            shot.draw(game.batch);
-            shot.updatePosition(
-                    shot.getPositionX() + MathUtils.sinDeg(-shot.getAngle()) * shot.getSpeed() * deltaTime,
-                    shot.getPositionY() + MathUtils.cosDeg(-shot.getAngle()) * shot.getSpeed() * deltaTime
+    private void drawShots(float alpha) {
+        Projectiles projectiles = world.getProjectiles();
+        for (int i = 0; i < projectiles.getCount(); i++) {
+            float width = projectiles.getWidth(i);
+            float height = projectiles.getHeight(i);
+            game.batch.draw(
+                    world.getTank(projectiles.getOwner(i)).getShotTexture(),
+                    projectiles.getInterpolatedX(i, alpha), projectiles.getInterpolatedY(i, alpha),
+                    width / 2, height / 2,
+                    width, height,
+                    1, 1,
+                    projectiles.getAngle(i)
             );
-
-            int threshold = 64;
-            if (shot.getPositionY() > game.HEIGHT + threshold ||
-                    shot.getPositionY() < -threshold ||
-                    shot.getPositionX() > game.WIDTH + threshold ||
-                    shot.getPositionX() < -threshold
-            ) {
-                iterator.remove();
-            }
         }
     }
 
     private void updateAndDrawExplosions(float delta) {
-        Array.ArrayIterator<Explosion> explosionsIterator = explosions.iterator();
-        while (explosionsIterator.hasNext()) {
-            Explosion explosion = explosionsIterator.next();
-
-            explosion.update(delta);
-
-            if (explosion.isFinished()) {
-                explosionsIterator.remove();
-            } else {
-                // if animation is not finished
-                explosion.draw(game.batch);
-            }
-        }
+        effects.update(delta);
+        effects.draw(game.batch);
     }
 
-    private void handlePlayerInput(float delta) {
-        if (playerTank.isDead()) return;
+    private int pollPlayerInput() {
+        boolean playerDead = ecsWorld != null ? ecsWorld.isPlayerDefeated() : world.getPlayerTank().isDead();
+        if (playerDead) return PlayerInput.NONE;
 
         if (timeSincePaused > 1 && Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
             timeSincePaused = 0;
             game.setScreen(new PauseScreen(game, this));
         }
 
+        int input = PlayerInput.NONE;
         if (Gdx.input.isKeyPressed(Input.Keys.A) || controller.isLeftPressed()) {
-
-            // clockwise
-            float finalAngle = playerTank.getOrientation() * MathUtils.radiansToDegrees + playerTank.getRotationSpeed() * delta;
-
-            if (finalAngle >= 360) {
-                finalAngle = 0;
-            } else if (finalAngle < 0) {
-                finalAngle = 360;
-            }
-
-            playerTank.setOrientation(finalAngle * MathUtils.degreesToRadians);
-
+            input |= PlayerInput.TURN_LEFT;
         } else if (Gdx.input.isKeyPressed(Input.Keys.D) || controller.isRightPressed()) {
-
-            // counter-clockwise
-            float finalAngle = playerTank.getOrientation() * MathUtils.radiansToDegrees - playerTank.getRotationSpeed() * delta;
-
-            if (finalAngle >= 360) {
-                finalAngle = 0;
-            } else if (finalAngle < 0) {
-                finalAngle = 360;
-            }
-
-            playerTank.setOrientation(finalAngle * MathUtils.degreesToRadians);
+            input |= PlayerInput.TURN_RIGHT;
         }
-
         if (Gdx.input.isKeyPressed(Input.Keys.W) || controller.isUpPressed()) {
-            float newPosX = playerTank.getPositionX() - playerTank.getSpeed() * MathUtils.sinDeg(-playerTank.getOrientation() * MathUtils.radiansToDegrees) * delta;
-            float newPosY = playerTank.getPositionY() - playerTank.getSpeed() * MathUtils.cosDeg(-playerTank.getOrientation() * MathUtils.radiansToDegrees) * delta;
-
-            collisionBox.set(
-                    newPosX,
-                    newPosY,
-                    playerTank.getWidth(),
-                    playerTank.getHeight());
-
-            boolean isPathBlocked = false;
-
-            for (Tank enemyTank : enemyTankList) {
-                if (collisionBox.overlaps(enemyTank.getBoundingBox())) {
-                    isPathBlocked = true;
-                }
-            }
-
-            if (!isPathBlocked) {
-                playerTank.updatePosition(newPosX, newPosY);
-
-                playerTank.leaveTracks(false);
-
-                if (!engineSound.isPlaying()) {
-                    engineSound.play();
-                }
-            }
-
+            input |= PlayerInput.FORWARD;
         } else if (Gdx.input.isKeyPressed(Input.Keys.S) || controller.isDownPressed()) {
-            float newPosX = playerTank.getPositionX() + playerTank.getReverseSpeed() * MathUtils.sinDeg(-playerTank.getOrientation() * MathUtils.radiansToDegrees) * delta;
-            float newPosY = playerTank.getPositionY() + playerTank.getReverseSpeed() * MathUtils.cosDeg(-playerTank.getOrientation() * MathUtils.radiansToDegrees) * delta;
-
-            collisionBox.set(
-                    newPosX,
-                    newPosY,
-                    playerTank.getWidth(),
-                    playerTank.getHeight());
-
-            boolean isPathBlocked = false;
-
-            for (Tank enemyTank : enemyTankList) {
-                if (collisionBox.overlaps(enemyTank.getBoundingBox())) {
-                    isPathBlocked = true;
-                }
-            }
-
-            if (!isPathBlocked) {
-                playerTank.updatePosition(newPosX, newPosY);
-
-                playerTank.leaveTracks(true);
-
-                if (!engineSound.isPlaying()) {
-                    engineSound.play();
-                }
-            }
-
-        } else {
-            engineSound.stop();
-        }
-
-        if (playerTank.getPositionX() < 0) {
-            playerTank.setPositionX(0);
-        } else if (playerTank.getPositionX() > game.WIDTH - playerTank.getWidth()) {
-            playerTank.setPositionX(game.WIDTH - playerTank.getWidth());
+            input |= PlayerInput.REVERSE;
         }
-        if (playerTank.getPositionY() < 0) {
-            playerTank.setPositionY(0);
-        } else if (playerTank.getPositionY() > game.HEIGHT - playerTank.getWidth()) {
-            playerTank.setPositionY(game.HEIGHT - playerTank.getWidth());
+        if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+            input |= PlayerInput.FIRE;
         }
+        return input;
+    }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
-            // Create new shots
-            if (playerTank.canFire()) {
-                ShakeEffect.shakeIt(3f, .1f);
-                playerTank.fire(playerTank, shotSound); // adds a single shot to tank's shots array
+    private void updateEngineSound() {
+        boolean playerMoved = ecsWorld != null ? ecsWorld.hasPlayerMoved() : world.hasPlayerMoved();
+        if (playerMoved) {
+            if (!engineSound.isPlaying()) {
+                engineSound.play();
             }
+        } else {
+            engineSound.stop();
         }
     }
 
-
     @Override
     public void resize(int width, int height) {
         controller.resize(width, height);
@@ -522,14 +407,19 @@ public class MainGameScreen implements Screen {
 
     @Override
     public void dispose() {
+        if (profiler.isTrackingAllocations()) {
+            Gdx.app.log(TAG, profiler.getAllocationReport());
+        }
+        profiler.setEnabled(false);
         textureAtlas.dispose();
+        background.dispose();
+        trackLayer.dispose();
         shotSound.dispose();
         engineSound.dispose();
         tankHitSound.dispose();
         tankExplodedSound.dispose();
-        playerTank.dispose();
-        for (Tank enemyTank : enemyTankList) {
-            enemyTank.dispose();
+        if (world != null) {
+            world.dispose();
         }
     }
 }
@@ -0,0 +1,110 @@
+package com.gledyson.tanks.snapshot;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.gledyson.tanks.effects.EffectsManager;
+import com.gledyson.tanks.effects.ShakeEffect;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.GameWorld;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+// A copy of the whole match in one direct buffer, for rewinding, quick saves and running
+// A/B comparisons from the same state. The buffer is reused by every save(), and restore()
+// writes back into the tanks, shots and effects that already exist, so neither allocates
+// per entity once the buffer has grown to fit.
+//
+// Covers the world (see GameWorld.write), the wave spawner, effects, the screen shake and the
+// shared random generator. Track decals already stamped on the ground layer aren't kept.
+public class WorldSnapshot {
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private ByteBuffer buffer;
+    private int size = -1; // bytes saved, -1 before the first save()
+    private boolean hasSpawner;
+    private boolean hasEffects;
+
+    public WorldSnapshot() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public WorldSnapshot(int capacity) {
+        buffer = BufferUtils.newByteBuffer(capacity);
+    }
+
+    // spawner and effects are optional
+    public void save(GameWorld world, WaveSpawner spawner, EffectsManager effects) {
+        while (true) {
+            buffer.clear();
+            try {
+                write(world, spawner, effects);
+                break;
+            } catch (BufferOverflowException e) {
+                // only while warming up, the bigger buffer is kept
+                buffer = BufferUtils.newByteBuffer(buffer.capacity() * 2);
+            }
+        }
+        size = buffer.position();
+        hasSpawner = spawner != null;
+        hasEffects = effects != null;
+    }
+
+    // Puts the saved state back, into the same world or a new one set up the same way
+    public void restore(GameWorld world, WaveSpawner spawner, EffectsManager effects) {
+        if (size < 0) {
+            throw new IllegalStateException("Nothing saved yet");
+        }
+        if (hasSpawner != (spawner != null) || hasEffects != (effects != null)) {
+            throw new IllegalArgumentException("Restore with the same parts as the save");
+        }
+
+        buffer.clear();
+        buffer.limit(size);
+        world.read(buffer);
+        if (spawner != null) {
+            spawner.read(buffer);
+        }
+        if (effects != null) {
+            effects.read(buffer);
+        }
+        ShakeEffect.read(buffer);
+        if (buffer.get() != 0) {
+            ((RandomXS128) MathUtils.random).setState(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    private void write(GameWorld world, WaveSpawner spawner, EffectsManager effects) {
+        world.write(buffer);
+        if (spawner != null) {
+            spawner.write(buffer);
+        }
+        if (effects != null) {
+            effects.write(buffer);
+        }
+        ShakeEffect.write(buffer);
+
+        // MathUtils.random can be swapped for another Random, whose state can't be read
+        if (MathUtils.random instanceof RandomXS128) {
+            RandomXS128 random = (RandomXS128) MathUtils.random;
+            buffer.put((byte) 1);
+            buffer.putLong(random.getState(0)).putLong(random.getState(1));
+        } else {
+            buffer.put((byte) 0);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size < 0;
+    }
+
+    // bytes used by the last save()
+    public int getSize() {
+        return Math.max(0, size);
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,49 @@
+package com.gledyson.tanks.spawn;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.world.GameWorld;
+
+// Preset enemy setups for measuring how the game scales, picked by name on the desktop
+// launcher's command line (e.g. "tanks_500"). DEFAULT is the normal game.
+public enum StressScenario {
+    DEFAULT("waves/default.json", true, false),
+    TANKS_1("waves/stress_1.json", true, false),
+    TANKS_10("waves/stress_10.json", true, false),
+    TANKS_100("waves/stress_100.json", true, false),
+    TANKS_500("waves/stress_500.json", true, false),
+    // every enemy fires as soon as it has reloaded, whether it can hit or not
+    SHOT_HEAVY("waves/stress_100.json", false, false),
+    // every enemy prints tracks
+    TRACK_HEAVY("waves/stress_100.json", true, true);
+
+    private final String wavesPath;
+    private final boolean enemyFireControl;
+    private final boolean enemyTracks;
+
+    StressScenario(String wavesPath, boolean enemyFireControl, boolean enemyTracks) {
+        this.wavesPath = wavesPath;
+        this.enemyFireControl = enemyFireControl;
+        this.enemyTracks = enemyTracks;
+    }
+
+    // Sets the world up for the scenario and returns the spawner for its waves
+    public WaveSpawner apply(GameWorld world) {
+        world.setEnemyFireControl(enemyFireControl);
+        world.setEnemyTracks(enemyTracks);
+        return new WaveSpawner(world, loadWaves());
+    }
+
+    public Array<Wave> loadWaves() {
+        return Wave.load(Gdx.files.internal(wavesPath));
+    }
+
+    // case-insensitive, DEFAULT for null
+    public static StressScenario forName(String name) {
+        if (name == null) return DEFAULT;
+        for (StressScenario scenario : values()) {
+            if (scenario.name().equalsIgnoreCase(name)) return scenario;
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+}
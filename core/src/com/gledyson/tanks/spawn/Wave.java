@@ -0,0 +1,91 @@
+package com.gledyson.tanks.spawn;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+// One wave of enemies, as read from a wave file:
+//
+//   { "waves": [
+//       { "count": 3, "points": [[240, 600, 23], [100, 600, 9], [410, 600, 0]] },
+//       { "count": 100, "delay": 2, "interval": 0.05, "area": [0, 400, 480, 400], "angle": 0 }
+//   ] }
+//
+// Enemies are placed on the listed points (x, y, angle) in turn, or spread on a grid over
+// the area (x, y, width, height). A wave starts delay seconds after the previous one was
+// cleared, or after it started when the previous one has "waitForClear": false.
+// Enemies come out interval seconds apart, all at once by default.
+public class Wave {
+    public int count;
+    public float delay;
+    public float interval;
+    public boolean waitForClear = true;
+
+    public float[] points; // x, y, angle triplets
+    public float areaX, areaY, areaWidth, areaHeight;
+    public float angle;
+
+    public static Array<Wave> load(FileHandle file) {
+        JsonValue root = new JsonReader().parse(file);
+        JsonValue wavesJson = root.get("waves");
+        if (wavesJson == null) {
+            throw new GdxRuntimeException("No waves in " + file.path());
+        }
+
+        Array<Wave> waves = new Array<>();
+        for (JsonValue waveJson = wavesJson.child; waveJson != null; waveJson = waveJson.next) {
+            waves.add(parse(waveJson, file));
+        }
+        return waves;
+    }
+
+    private static Wave parse(JsonValue json, FileHandle file) {
+        Wave wave = new Wave();
+        wave.count = json.getInt("count");
+        wave.delay = json.getFloat("delay", 0f);
+        wave.interval = json.getFloat("interval", 0f);
+        wave.waitForClear = json.getBoolean("waitForClear", true);
+        wave.angle = json.getFloat("angle", 0f);
+
+        JsonValue points = json.get("points");
+        JsonValue area = json.get("area");
+        if (points != null) {
+            wave.points = new float[points.size * 3];
+            int i = 0;
+            for (JsonValue point = points.child; point != null; point = point.next) {
+                wave.points[i++] = point.getFloat(0);
+                wave.points[i++] = point.getFloat(1);
+                wave.points[i++] = point.size > 2 ? point.getFloat(2) : wave.angle;
+            }
+        } else if (area != null) {
+            wave.areaX = area.getFloat(0);
+            wave.areaY = area.getFloat(1);
+            wave.areaWidth = area.getFloat(2);
+            wave.areaHeight = area.getFloat(3);
+        } else {
+            throw new GdxRuntimeException("Wave needs points or an area in " + file.path());
+        }
+        return wave;
+    }
+
+    // Where the i-th enemy of the wave goes: x, y and angle into out
+    public void getSpawn(int i, float[] out) {
+        if (points != null) {
+            int point = i % (points.length / 3) * 3;
+            out[0] = points[point];
+            out[1] = points[point + 1];
+            out[2] = points[point + 2];
+            return;
+        }
+
+        // as square a grid as the area allows, filled row by row
+        int columns = Math.max(1, MathUtils.round((float) Math.sqrt(count * areaWidth / Math.max(1f, areaHeight))));
+        int rows = (count + columns - 1) / columns;
+        out[0] = areaX + (i % columns + 0.5f) * areaWidth / columns;
+        out[1] = areaY + (i / columns + 0.5f) * areaHeight / rows;
+        out[2] = angle;
+    }
+}
@@ -0,0 +1,127 @@
+package com.gledyson.tanks.spawn;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.world.GameWorld;
+
+import java.nio.ByteBuffer;
+
+// Feeds a GameWorld its enemies, wave after wave (see Wave for the file format).
+// Enemies come from the world's pool, and the wrecks of earlier waves go back to it when
+// a new wave starts, so ramping up to hundreds of tanks doesn't keep building new ones.
+// Call update() once per simulation step, before stepping the world.
+public class WaveSpawner {
+    private final GameWorld world;
+    private final Array<Wave> waves;
+    private final float[] spawn = new float[3];
+    // random offsets from the wave's spawn points, from MathUtils.random
+    private float jitterDistance;
+    private float jitterDegrees;
+
+    private int nextWave;
+    private Wave current; // still spawning, null between waves
+    private int spawnedInWave;
+    private float spawnTime;
+    private float waitTime;
+    private int spawnedCount;
+
+    public WaveSpawner(GameWorld world, Array<Wave> waves) {
+        this.world = world;
+        this.waves = waves;
+    }
+
+    public void update(float delta) {
+        if (current != null) {
+            spawnTime += delta;
+            spawnDue();
+            return;
+        }
+        if (nextWave == waves.size) return;
+
+        Wave wave = waves.get(nextWave);
+        if (wave.waitForClear && !world.areEnemiesDefeated()) {
+            waitTime = 0f;
+            return;
+        }
+        waitTime += delta;
+        if (waitTime < wave.delay) return;
+
+        recycleWrecks();
+        current = wave;
+        nextWave++;
+        spawnedInWave = 0;
+        spawnTime = 0f;
+        waitTime = 0f;
+        spawnDue();
+    }
+
+    private void spawnDue() {
+        while (spawnedInWave < current.count
+                && (current.interval <= 0 || spawnTime >= spawnedInWave * current.interval)) {
+            current.getSpawn(spawnedInWave, spawn);
+            if (jitterDistance > 0 || jitterDegrees > 0) {
+                spawn[0] += MathUtils.random(-jitterDistance, jitterDistance);
+                spawn[1] += MathUtils.random(-jitterDistance, jitterDistance);
+                spawn[2] += MathUtils.random(-jitterDegrees, jitterDegrees);
+            }
+            world.spawnEnemyTank(spawn[0], spawn[1], spawn[2]);
+            spawnedInWave++;
+            spawnedCount++;
+        }
+        if (spawnedInWave == current.count) {
+            current = null;
+        }
+    }
+
+    private void recycleWrecks() {
+        Array<EnemyTank> enemies = world.getEnemyTanks();
+        for (int i = enemies.size - 1; i >= 0; i--) {
+            EnemyTank enemy = enemies.get(i);
+            if (enemy.isDead()) {
+                world.despawnEnemyTank(enemy);
+            }
+        }
+    }
+
+    // Progress through the waves, for world snapshots. The waves themselves stay as loaded.
+    public void write(ByteBuffer out) {
+        out.putInt(nextWave);
+        out.put((byte) (current != null ? 1 : 0));
+        out.putInt(spawnedInWave);
+        out.putFloat(spawnTime);
+        out.putFloat(waitTime);
+        out.putInt(spawnedCount);
+    }
+
+    public void read(ByteBuffer in) {
+        nextWave = in.getInt();
+        // a wave still spawning is always the last one started
+        current = in.get() != 0 ? waves.get(nextWave - 1) : null;
+        spawnedInWave = in.getInt();
+        spawnTime = in.getFloat();
+        waitTime = in.getFloat();
+        spawnedCount = in.getInt();
+    }
+
+    // Moves every spawn by up to distance on each axis and turns it by up to degrees,
+    // so seeded matches play out differently. Off by default, the waves spawn as written.
+    public void setJitter(float distance, float degrees) {
+        this.jitterDistance = distance;
+        this.jitterDegrees = degrees;
+    }
+
+    // every wave has been spawned
+    public boolean isFinished() {
+        return current == null && nextWave == waves.size;
+    }
+
+    // waves started so far
+    public int getWaveCount() {
+        return nextWave;
+    }
+
+    public int getSpawnedCount() {
+        return spawnedCount;
+    }
+}
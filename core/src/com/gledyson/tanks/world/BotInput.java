@@ -0,0 +1,72 @@
+package com.gledyson.tanks.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.gledyson.tanks.objects.Tank;
+
+// Drives a tank with the same PlayerInput bits a human would produce:
+// turn towards the closest living enemy, close in and fire once lined up.
+public class BotInput {
+    private static final float AIM_TOLERANCE = 4f * MathUtils.degreesToRadians;
+    private static final float ENGAGE_DISTANCE = 220f;
+
+    private final GameWorld world;
+
+    public BotInput(GameWorld world) {
+        this.world = world;
+    }
+
+    public int poll(Tank tank) {
+        if (tank.isDead()) return PlayerInput.NONE;
+
+        Tank target = findClosestEnemy(tank);
+        if (target == null) return PlayerInput.NONE;
+
+        return engage(tank.getPositionX(), tank.getPositionY(), tank.getOrientation(),
+                target.getPositionX(), target.getPositionY());
+    }
+
+    // The input that turns a tank at x, y towards the target, closes in and fires once lined up
+    public static int engage(float x, float y, float orientation, float targetX, float targetY) {
+        float dx = targetX - x;
+        float dy = targetY - y;
+
+        // tanks move along (sin, -cos) of their orientation
+        float desiredOrientation = MathUtils.atan2(dx, -dy);
+        float difference = wrapAngle(desiredOrientation - orientation);
+
+        int input = PlayerInput.NONE;
+        if (difference > AIM_TOLERANCE) {
+            input |= PlayerInput.TURN_LEFT;
+        } else if (difference < -AIM_TOLERANCE) {
+            input |= PlayerInput.TURN_RIGHT;
+        } else {
+            input |= PlayerInput.FIRE;
+        }
+
+        if (dx * dx + dy * dy > ENGAGE_DISTANCE * ENGAGE_DISTANCE) {
+            input |= PlayerInput.FORWARD;
+        }
+        return input;
+    }
+
+    private Tank findClosestEnemy(Tank tank) {
+        Tank closest = null;
+        float closestDistance = Float.MAX_VALUE;
+        for (Tank enemyTank : world.getEnemyTanks()) {
+            if (enemyTank.isDead()) continue;
+
+            float distance = enemyTank.getPosition().dst2(tank.getPosition());
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = enemyTank;
+            }
+        }
+        return closest;
+    }
+
+    private static float wrapAngle(float angle) {
+        while (angle > MathUtils.PI) angle -= MathUtils.PI2;
+        while (angle < -MathUtils.PI) angle += MathUtils.PI2;
+        return angle;
+    }
+}
@@ -0,0 +1,43 @@
+package com.gledyson.tanks.world;
+
+// Turns variable frame time into fixed simulation steps.
+// Rendering uses getAlpha() to interpolate between the last two simulated states.
+public class FixedTimestep {
+    private final float step;
+    private final int maxStepsPerFrame;
+    private float accumulator;
+
+    public FixedTimestep(float step, int maxStepsPerFrame) {
+        this.step = step;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    public int advance(float frameDelta) {
+        accumulator += frameDelta;
+
+        int steps = 0;
+        while (accumulator >= step && steps < maxStepsPerFrame) {
+            accumulator -= step;
+            steps++;
+        }
+
+        // too far behind: drop the backlog so a hitch slows the game down instead of stalling it
+        if (accumulator >= step) {
+            accumulator %= step;
+        }
+        return steps;
+    }
+
+    // fraction of a step left over, in [0, 1)
+    public float getAlpha() {
+        return accumulator / step;
+    }
+
+    public float getStep() {
+        return step;
+    }
+
+    public void reset() {
+        accumulator = 0f;
+    }
+}
@@ -0,0 +1,623 @@
+package com.gledyson.tanks.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.gledyson.tanks.ai.AiScheduler;
+import com.gledyson.tanks.ai.EnemyBrain;
+import com.gledyson.tanks.ai.FireControl;
+import com.gledyson.tanks.ai.FlowField;
+import com.gledyson.tanks.ai.FlowFieldPursuit;
+import com.gledyson.tanks.ai.GridProximity;
+import com.gledyson.tanks.ai.NavigationGrid;
+import com.gledyson.tanks.ai.PathfindingService;
+import com.gledyson.tanks.ai.VisibilityCache;
+import com.gledyson.tanks.debug.FrameProfiler;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.objects.PlayerTank;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.physics.Box2DPhysics;
+import com.gledyson.tanks.physics.OrientedBox;
+import com.gledyson.tanks.physics.SpatialGrid;
+import com.gledyson.tanks.physics.ShotSweep;
+
+import java.nio.ByteBuffer;
+
+// The game rules: tanks, shots, collisions and damage.
+// Doesn't touch textures, sounds or the SpriteBatch, so it also runs on the headless backend.
+public class GameWorld {
+    private static final int SHOT_BOUNDS_THRESHOLD = 64;
+    private static final float GRID_CELL_SIZE = 64;
+    private static final float NAVIGATION_CELL_SIZE = 32;
+    // enemies switch from the flow field to Arrive this close to the player
+    private static final float ARRIVE_DISTANCE = 96;
+    // enemies keep clear of tanks within this distance, center to center
+    private static final float NEIGHBOR_RADIUS = 80;
+    // A* searches may run this long per step, queued ones continue next step
+    private static final long PATHFINDING_BUDGET_NANOS = 1000000;
+    private static final int PATH_BUCKET_TILES = 2;
+    // enemy AI level of detail: full rate on screen and within AI_NEAR_MARGIN of it, slower further out
+    private static final float AI_NEAR_MARGIN = 64;
+    private static final float AI_MID_MARGIN = 300;
+    private static final long AI_BUDGET_NANOS = 2000000;
+    // enemies only fire with a clear line and the hull this close to pointing at the player
+    private static final float ENEMY_AIM_TOLERANCE = 10f;
+    private static final int VISIBILITY_CACHE_SIZE = 1024;
+    // enemy decisions, a few enemies re-think every step
+    private static final String ENEMY_TREE = "ai/enemy.tree";
+    private static final int DECISIONS_PER_STEP = 4;
+
+    private final float width;
+    private final float height;
+    private final TankFactory tankFactory;
+    private final WorldListener listener;
+
+    private final PlayerTank playerTank; // the local player, enemies go after this one
+    private final Array<PlayerTank> playerTanks; // every player, the local one first
+    private final int[] localInput = new int[1];
+    private final Array<EnemyTank> enemyTankList; // active ones
+    // pooled enemies, the last one is handed out next. A plain array rather than a Pool so
+    // snapshots can keep the order.
+    private final Array<EnemyTank> freeEnemies;
+    private final Array<Tank> tanks; // every tank, pooled ones too, indexed by id
+    private final Projectiles projectiles;
+    private final OrientedBox collisionBox;
+
+    // Broadphase, rebuilt every step. Items are tank ids and shot indices.
+    private final SpatialGrid tankGrid;
+    private final SpatialGrid shotGrid;
+    private final IntArray candidates;
+    private final ShotSweep shotSweep;
+
+    // Enemy navigation: one flow field towards the player, shared by every enemy
+    private final NavigationGrid navigationGrid;
+    private final FlowField playerFlowField;
+    // nothing in the game asks it for paths yet, HeadlessLauncher's paths mode is the only user
+    private final PathfindingService pathfinding;
+    private final AiScheduler aiScheduler;
+    private final FireControl fireControl;
+    private final EnemyBrain enemyBrain;
+
+    // stress knobs: enemies firing whenever reloaded, enemies printing tracks
+    private boolean enemyFireControl = true;
+    private boolean enemyTracks;
+
+    // optional phase timings, null when nobody is profiling
+    private FrameProfiler profiler;
+
+    // optional Box2D mode, null when the hand-written movement and collisions are used
+    private Box2DPhysics physics;
+
+    private boolean playerMoved;
+    private float elapsedTime;
+
+    public GameWorld(float width, float height, TankFactory tankFactory, WorldListener listener) {
+        this.width = width;
+        this.height = height;
+        this.tankFactory = tankFactory;
+        this.listener = listener;
+
+        this.tanks = new Array<>();
+        this.projectiles = new Projectiles();
+        this.enemyTankList = new Array<>();
+        this.freeEnemies = new Array<>();
+        this.collisionBox = new OrientedBox();
+
+        // cover the area shots can still live in
+        float gridWidth = width + 2 * SHOT_BOUNDS_THRESHOLD;
+        float gridHeight = height + 2 * SHOT_BOUNDS_THRESHOLD;
+        this.tankGrid = new SpatialGrid(-SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD, gridWidth, gridHeight, GRID_CELL_SIZE);
+        this.shotGrid = new SpatialGrid(-SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD, gridWidth, gridHeight, GRID_CELL_SIZE);
+        this.candidates = new IntArray();
+        this.shotSweep = new ShotSweep();
+
+        this.navigationGrid = new NavigationGrid(width, height, NAVIGATION_CELL_SIZE);
+        this.playerFlowField = new FlowField(navigationGrid);
+        this.pathfinding = new PathfindingService(navigationGrid, PATHFINDING_BUDGET_NANOS, PATH_BUCKET_TILES);
+        this.aiScheduler = new AiScheduler(AI_NEAR_MARGIN, AI_MID_MARGIN, AI_BUDGET_NANOS);
+        // the screen shows the whole world
+        aiScheduler.setVisibleArea(0, 0, width, height);
+        this.fireControl = new FireControl(new VisibilityCache(navigationGrid, VISIBILITY_CACHE_SIZE), ENEMY_AIM_TOLERANCE);
+        this.enemyBrain = new EnemyBrain(ENEMY_TREE, DECISIONS_PER_STEP);
+
+        this.playerTanks = new Array<>();
+        this.playerTank = addPlayerTank(width / 2f, height / 4f, 180, Tank.TEAM_PLAYER);
+    }
+
+    // Another player, e.g. for a networked match. Give each one its own team for free-for-all.
+    public PlayerTank addPlayerTank(float centerX, float centerY, float angle, int team) {
+        PlayerTank tank = tankFactory.createPlayerTank(centerX, centerY, angle);
+        addTank(tank, team);
+        playerTanks.add(tank);
+        return tank;
+    }
+
+    // Brings a player back as new, alive and active
+    public void respawnPlayerTank(PlayerTank tank, float centerX, float centerY, float angle) {
+        tank.respawn(centerX, centerY, angle);
+        tank.setActive(true);
+        if (physics != null) {
+            physics.placeTank(tank);
+        }
+    }
+
+    // Takes an enemy from the pool, or builds one, and places it
+    public EnemyTank spawnEnemyTank(float centerX, float centerY, float angle) {
+        EnemyTank enemyTank = freeEnemies.size > 0 ? freeEnemies.pop() : createEnemyTank();
+        enemyTank.placeAt(centerX, centerY, angle);
+        enemyTank.setActive(true);
+        if (physics != null) {
+            physics.placeTank(enemyTank);
+        }
+        enemyTankList.add(enemyTank);
+        aiScheduler.add(enemyTank);
+        return enemyTank;
+    }
+
+    // Takes the enemy, alive or wreck, out of the world and back to the pool
+    public void despawnEnemyTank(EnemyTank enemyTank) {
+        if (!enemyTankList.removeValue(enemyTank, true)) return;
+
+        aiScheduler.remove(enemyTank);
+        enemyTank.setActive(false);
+        enemyTank.reset();
+        freeEnemies.add(enemyTank);
+    }
+
+    private EnemyTank createEnemyTank() {
+        EnemyTank enemyTank = tankFactory.createEnemyTank(0, 0, 0, playerTank);
+        enemyTank.setBehavior(EnemyTank.CHASE, new FlowFieldPursuit(enemyTank, playerFlowField, playerTank, ARRIVE_DISTANCE));
+        enemyTank.enableCrowdSteering(new GridProximity(this, enemyTank, NEIGHBOR_RADIUS));
+        addTank(enemyTank, Tank.TEAM_ENEMY);
+        return enemyTank;
+    }
+
+    private void addTank(Tank tank, int team) {
+        tank.setId(tanks.size);
+        tank.setTeam(team);
+        tanks.add(tank);
+    }
+
+    // One step with input for the local player only
+    public void step(float delta, int input) {
+        localInput[0] = input;
+        step(delta, localInput);
+    }
+
+    // inputs: one per player, in getPlayerTanks() order. Missing ones count as no input.
+    public void step(float delta, int[] inputs) {
+        elapsedTime += delta;
+
+        // keep last step's state so rendering can interpolate
+        for (Tank tank : playerTanks) {
+            tank.savePreviousState();
+        }
+        for (Tank enemyTank : enemyTankList) {
+            enemyTank.savePreviousState();
+        }
+
+        for (Tank tank : playerTanks) {
+            tank.update(delta);
+        }
+        beginPhase(FrameProfiler.COLLISIONS);
+        rebuildTankGrid();
+        endPhase(FrameProfiler.COLLISIONS);
+
+        beginPhase(FrameProfiler.INPUT);
+        for (int i = 0; i < playerTanks.size; i++) {
+            boolean moved = applyPlayerInput(playerTanks.get(i), i < inputs.length ? inputs[i] : PlayerInput.NONE, delta);
+            if (i == 0) playerMoved = moved;
+        }
+        endPhase(FrameProfiler.INPUT);
+
+        // Update tanks, the flow field only rebuilds when the player changed tile
+        beginPhase(FrameProfiler.AI);
+        playerFlowField.update(
+                playerTank.getPositionX() + playerTank.getWidth() / 2,
+                playerTank.getPositionY() + playerTank.getHeight() / 2);
+        updateEnemyTanks(delta);
+        pathfinding.update();
+        endPhase(FrameProfiler.AI);
+
+        if (physics != null) {
+            // Box2D moves tanks and shells and reports hits through handleHit
+            beginPhase(FrameProfiler.SHOTS);
+            physics.step(delta);
+            endPhase(FrameProfiler.SHOTS);
+
+            beginPhase(FrameProfiler.COLLISIONS);
+            rebuildTankGrid();
+        } else {
+            beginPhase(FrameProfiler.COLLISIONS);
+            rebuildTankGrid();
+            endPhase(FrameProfiler.COLLISIONS);
+
+            // Move shots and remove old ones
+            beginPhase(FrameProfiler.SHOTS);
+            projectiles.integrate(delta,
+                    -SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD,
+                    width + SHOT_BOUNDS_THRESHOLD, height + SHOT_BOUNDS_THRESHOLD);
+            endPhase(FrameProfiler.SHOTS);
+
+            // Check collisions
+            beginPhase(FrameProfiler.COLLISIONS);
+            evaluateCollisions();
+        }
+        rebuildShotGrid();
+        endPhase(FrameProfiler.COLLISIONS);
+    }
+
+    private void beginPhase(int phase) {
+        if (profiler != null) profiler.begin(phase);
+    }
+
+    private void endPhase(int phase) {
+        if (profiler != null) profiler.end(phase);
+    }
+
+    private void updateEnemyTanks(float delta) {
+        // decisions pick the steering behaviour, steering runs at a rate depending on distance
+        // from the screen, reloading and firing happen every step
+        enemyBrain.update(enemyTankList);
+        aiScheduler.update(delta);
+
+        for (Tank enemyTank : enemyTankList) {
+            if (enemyTank.isDead()) continue;
+
+            enemyTank.reload(delta);
+            if (enemyTank.canFire() && (!enemyFireControl || fireControl.hasClearShot(enemyTank, playerTank))) {
+                enemyTank.fire(projectiles);
+                listener.onShotFired(enemyTank);
+            }
+            if (enemyTracks && enemyTank.leaveTracks(false)) {
+                listener.onTrackPrinted(enemyTank,
+                        enemyTank.getPositionX(), enemyTank.getPositionY(),
+                        enemyTank.getOrientation() * MathUtils.radiansToDegrees);
+            }
+        }
+    }
+
+    // Done by step(), public for code moving tanks on its own, e.g. benchmarks
+    public void rebuildTankGrid() {
+        tankGrid.clear();
+        for (Tank tank : tanks) {
+            if (!tank.isActive()) continue;
+
+            // bounds of the rotated box, the plain bounding box misses the corners of a diagonal tank
+            OrientedBox box = tank.getOrientedBox();
+            tankGrid.insert(tank.getId(), box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+        }
+    }
+
+    private void rebuildShotGrid() {
+        shotGrid.clear();
+        for (int shot = 0; shot < projectiles.getCount(); shot++) {
+            float x = projectiles.getX(shot);
+            float y = projectiles.getY(shot);
+            shotGrid.insert(shot, x, y, x + projectiles.getWidth(shot), y + projectiles.getHeight(shot));
+        }
+    }
+
+    private void evaluateCollisions() {
+        // walk backwards so a hit shot can be swap-removed
+        for (int shot = projectiles.getCount() - 1; shot >= 0; shot--) {
+            shotSweep.set(projectiles, shot);
+
+            // broadphase over everything the shot swept through this step
+            candidates.clear();
+            tankGrid.query(shotSweep.getMinX(), shotSweep.getMinY(), shotSweep.getMaxX(), shotSweep.getMaxY(), candidates);
+
+            // the first tank along the path takes the hit
+            Tank hitTank = null;
+            for (int i = 0; i < candidates.size; i++) {
+                Tank tank = tanks.get(candidates.get(i));
+
+                // shots don't hit their own side
+                if (tank.getTeam() == projectiles.getTeam(shot)) continue;
+
+                if (shotSweep.offer(tank.getOrientedBox())) {
+                    hitTank = tank;
+                }
+            }
+
+            // if shell hits
+            if (hitTank != null) {
+                handleHit(shot, hitTank, shotSweep.getHitX(), shotSweep.getHitY());
+            }
+        }
+    }
+
+    public void handleHit(int shot, Tank tank, float hitX, float hitY) {
+        // Check if already dead
+        if (tank.isDead()) {
+            listener.onWreckHit(tank);
+        } else if (tank.takeDamageAndCheckDestroyed(projectiles.getDamage(shot))) {
+            // if tank is dead
+            listener.onTankDestroyed(tank);
+        } else {
+            listener.onTankHit(tank, hitX, hitY);
+            if (tank instanceof EnemyTank) {
+                aiScheduler.promote((EnemyTank) tank);
+            }
+        }
+        projectiles.remove(shot); // removes the shot after hit
+    }
+
+    // Drives one player's tank, returns true if it moved
+    private boolean applyPlayerInput(PlayerTank tank, int input, float delta) {
+        if (!tank.isActive() || tank.isDead()) return false;
+        boolean moved = false;
+
+        tank.setOrientation(PlayerInput.turn(input, tank.getOrientation(), tank.getRotationSpeed(), delta));
+
+        float speed = PlayerInput.speed(input, tank.getSpeed(), tank.getReverseSpeed());
+        if (speed != 0) {
+            float newPosX = tank.getPositionX() - speed * MathUtils.sinDeg(-tank.getOrientation() * MathUtils.radiansToDegrees) * delta;
+            float newPosY = tank.getPositionY() - speed * MathUtils.cosDeg(-tank.getOrientation() * MathUtils.radiansToDegrees) * delta;
+
+            if (physics != null || !isPathBlocked(tank, newPosX, newPosY)) {
+                tank.updatePosition(newPosX, newPosY);
+
+                if (tank.leaveTracks(speed < 0)) {
+                    listener.onTrackPrinted(tank,
+                            tank.getPositionX(), tank.getPositionY(),
+                            tank.getOrientation() * MathUtils.radiansToDegrees);
+                }
+
+                moved = true;
+            }
+        }
+
+        if (tank.getPositionX() < 0) {
+            tank.setPositionX(0);
+        } else if (tank.getPositionX() > width - tank.getWidth()) {
+            tank.setPositionX(width - tank.getWidth());
+        }
+        if (tank.getPositionY() < 0) {
+            tank.setPositionY(0);
+        } else if (tank.getPositionY() > height - tank.getWidth()) {
+            tank.setPositionY(height - tank.getWidth());
+        }
+
+        if (PlayerInput.isSet(input, PlayerInput.FIRE)) {
+            // Create new shots
+            if (tank.canFire()) {
+                tank.fire(projectiles); // adds a single shot to the world's projectiles
+                listener.onShotFired(tank);
+            }
+        }
+        return moved;
+    }
+
+    private boolean isPathBlocked(Tank tank, float newPosX, float newPosY) {
+        collisionBox.set(
+                newPosX + tank.getWidth() / 2,
+                newPosY + tank.getHeight() / 2,
+                tank.getWidth() / 2,
+                tank.getHeight() / 2,
+                tank.getOrientation());
+
+        candidates.clear();
+        queryTanks(collisionBox.getMinX(), collisionBox.getMinY(),
+                collisionBox.getMaxX(), collisionBox.getMaxY(),
+                candidates);
+
+        for (int i = 0; i < candidates.size; i++) {
+            Tank other = tanks.get(candidates.get(i));
+            if (other != tank && collisionBox.overlaps(other.getOrientedBox())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ids of tanks that may overlap the given bounds, for collision and AI proximity queries
+    public int queryTanks(float minX, float minY, float maxX, float maxY, IntArray out) {
+        return tankGrid.query(minX, minY, maxX, maxY, out);
+    }
+
+    // Indices of shots that may overlap the given bounds, valid until the next step
+    public int queryShots(float minX, float minY, float maxX, float maxY, IntArray out) {
+        return shotGrid.query(minX, minY, maxX, maxY, out);
+    }
+
+    // Switches to Box2D driven movement and hits. Needs the Box2D natives.
+    public void enablePhysics() {
+        if (physics != null) return;
+
+        physics = new Box2DPhysics(this,
+                -SHOT_BOUNDS_THRESHOLD, -SHOT_BOUNDS_THRESHOLD,
+                width + SHOT_BOUNDS_THRESHOLD, height + SHOT_BOUNDS_THRESHOLD);
+    }
+
+    // The world's state for WorldSnapshot: every tank built so far, which enemies are in play and
+    // which are pooled, shots and AI schedules. Queued path requests aren't kept.
+    public void write(ByteBuffer out) {
+        out.putFloat(elapsedTime);
+        out.put((byte) (playerMoved ? 1 : 0));
+
+        out.putInt(tanks.size);
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            out.put((byte) (tank instanceof PlayerTank ? 1 : 0));
+            out.putInt(tank.getTeam());
+            tank.write(out);
+        }
+        writeIds(out, enemyTankList);
+        writeIds(out, freeEnemies);
+
+        projectiles.write(out);
+        aiScheduler.write(out);
+        enemyBrain.write(out);
+    }
+
+    // Restores into the existing tanks, building the ones that are missing. Enemies built after
+    // the snapshot are pooled, behind the ones the snapshot had pooled, lowest id last in line
+    // as it would have been built next. Players who joined after it are left inactive.
+    public void read(ByteBuffer in) {
+        elapsedTime = in.getFloat();
+        playerMoved = in.get() != 0;
+
+        int tankCount = in.getInt();
+        for (int i = 0; i < tankCount; i++) {
+            boolean player = in.get() != 0;
+            int team = in.getInt();
+            if (i == tanks.size) {
+                if (player) {
+                    addPlayerTank(0, 0, 0, team);
+                } else {
+                    createEnemyTank();
+                }
+            }
+            tanks.get(i).setTeam(team);
+            tanks.get(i).read(in);
+        }
+        readIds(in, enemyTankList);
+        readIds(in, freeEnemies);
+        for (int i = tankCount; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            tank.setActive(false);
+            if (tank instanceof EnemyTank) {
+                ((EnemyTank) tank).reset();
+                freeEnemies.insert(0, (EnemyTank) tank);
+            }
+        }
+
+        projectiles.read(in);
+        aiScheduler.read(in, tanks);
+        enemyBrain.read(in);
+
+        rebuildTankGrid();
+        rebuildShotGrid();
+        if (physics != null) {
+            physics.resync();
+        }
+    }
+
+    private static void writeIds(ByteBuffer out, Array<EnemyTank> list) {
+        out.putInt(list.size);
+        for (int i = 0; i < list.size; i++) {
+            out.putInt(list.get(i).getId());
+        }
+    }
+
+    private void readIds(ByteBuffer in, Array<EnemyTank> list) {
+        list.clear();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            list.add((EnemyTank) tanks.get(in.getInt()));
+        }
+    }
+
+    // Turns off the AI and pathfinding time budgets, where work gets cut depends on the machine.
+    // The same input then always plays out the same way, which replays rely on.
+    public void setDeterministic(boolean deterministic) {
+        aiScheduler.setBudgetNanos(deterministic ? 0 : AI_BUDGET_NANOS);
+        pathfinding.setBudgetNanos(deterministic ? 0 : PATHFINDING_BUDGET_NANOS);
+    }
+
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // false lets enemies fire whenever they have reloaded, without aim or line of sight checks
+    public void setEnemyFireControl(boolean enemyFireControl) {
+        this.enemyFireControl = enemyFireControl;
+    }
+
+    // enemies print tracks like the player does
+    public void setEnemyTracks(boolean enemyTracks) {
+        this.enemyTracks = enemyTracks;
+    }
+
+    public NavigationGrid getNavigationGrid() {
+        return navigationGrid;
+    }
+
+    public FlowField getPlayerFlowField() {
+        return playerFlowField;
+    }
+
+    public FireControl getFireControl() {
+        return fireControl;
+    }
+
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    public EnemyBrain getEnemyBrain() {
+        return enemyBrain;
+    }
+
+    // Paths to arbitrary goals, for agents that don't just chase the player
+    public PathfindingService getPathfinding() {
+        return pathfinding;
+    }
+
+    public Box2DPhysics getPhysics() {
+        return physics;
+    }
+
+    public boolean isPlayerDefeated() {
+        return playerTank.isDead();
+    }
+
+    public boolean areEnemiesDefeated() {
+        for (Tank enemyTank : enemyTankList) {
+            if (!enemyTank.isDead()) return false;
+        }
+        return true;
+    }
+
+    public PlayerTank getPlayerTank() {
+        return playerTank;
+    }
+
+    public Array<PlayerTank> getPlayerTanks() {
+        return playerTanks;
+    }
+
+    public Array<EnemyTank> getEnemyTanks() {
+        return enemyTankList;
+    }
+
+    public Array<Tank> getTanks() {
+        return tanks;
+    }
+
+    public Tank getTank(int id) {
+        return tanks.get(id);
+    }
+
+    public Projectiles getProjectiles() {
+        return projectiles;
+    }
+
+    public boolean hasPlayerMoved() {
+        return playerMoved;
+    }
+
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public void dispose() {
+        if (physics != null) {
+            physics.dispose();
+        }
+        for (Tank tank : tanks) {
+            tank.dispose();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gledyson.tanks.world;
+
+import com.badlogic.gdx.math.MathUtils;
+
+// Bit flags for the player's controls, sampled once per frame and applied to every step of it
+public final class PlayerInput {
+    public static final int NONE = 0;
+    public static final int FORWARD = 1;
+    public static final int REVERSE = 1 << 1;
+    public static final int TURN_LEFT = 1 << 2;
+    public static final int TURN_RIGHT = 1 << 3;
+    public static final int FIRE = 1 << 4;
+
+    private PlayerInput() {
+    }
+
+    public static boolean isSet(int input, int flag) {
+        return (input & flag) != 0;
+    }
+
+    // The driving rules every player-controlled tank shares, GameWorld's and EcsWorld's.
+    // Orientation in radians after turning for a step, left is clockwise. Past a full turn the
+    // angle snaps to 0 or 360 instead of wrapping exactly.
+    public static float turn(int input, float orientation, float rotationSpeed, float delta) {
+        float finalAngle;
+        if (isSet(input, TURN_LEFT)) {
+            finalAngle = orientation * MathUtils.radiansToDegrees + rotationSpeed * delta;
+        } else if (isSet(input, TURN_RIGHT)) {
+            finalAngle = orientation * MathUtils.radiansToDegrees - rotationSpeed * delta;
+        } else {
+            return orientation;
+        }
+
+        if (finalAngle >= 360) {
+            finalAngle = 0;
+        } else if (finalAngle < 0) {
+            finalAngle = 360;
+        }
+        return finalAngle * MathUtils.degreesToRadians;
+    }
+
+    // Driving speed along the hull for the input, negative in reverse
+    public static float speed(int input, float forwardSpeed, float reverseSpeed) {
+        if (isSet(input, FORWARD)) return forwardSpeed;
+        if (isSet(input, REVERSE)) return -reverseSpeed;
+        return 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gledyson.tanks.world;
+
+import com.gledyson.tanks.objects.Tank;
+
+// Empty WorldListener, override only the events you need
+public class WorldAdapter implements WorldListener {
+    @Override
+    public void onShotFired(Tank tank) {
+    }
+
+    @Override
+    public void onTankHit(Tank tank, float hitX, float hitY) {
+    }
+
+    @Override
+    public void onTankDestroyed(Tank tank) {
+    }
+
+    @Override
+    public void onWreckHit(Tank tank) {
+    }
+
+    @Override
+    public void onTrackPrinted(Tank tank, float x, float y, float angle) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.gledyson.tanks.world;
+
+import com.gledyson.tanks.objects.Tank;
+
+// Gameplay events raised by GameWorld, so sound and visual effects stay out of the simulation
+public interface WorldListener {
+    void onShotFired(Tank tank);
+
+    void onTankHit(Tank tank, float hitX, float hitY);
+
+    void onTankDestroyed(Tank tank);
+
+    // a shot hit a tank that was already destroyed
+    void onWreckHit(Tank tank);
+
+    // a tank left a track print at x, y (bottom-left of the tank), angle in degrees
+    void onTrackPrinted(Tank tank, float x, float y, float angle);
+}
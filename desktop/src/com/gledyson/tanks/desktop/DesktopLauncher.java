@@ -3,13 +3,37 @@ package com.gledyson.tanks.desktop;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.gledyson.tanks.TanksGame;
+import com.gledyson.tanks.debug.AllocationCounter;
+import com.gledyson.tanks.debug.jvm.ThreadAllocationCounter;
+import com.gledyson.tanks.spawn.StressScenario;
 
+// Usage: DesktopLauncher [scenario] [alloc] [record] [ecs], in any order, where scenario is a StressScenario name such as
+// tanks_500, alloc tracks the bytes allocated per frame on the render thread, record records
+// the match for HeadlessLauncher's replay mode and ecs plays on EcsWorld instead of GameWorld
 public class DesktopLauncher {
     public static void main(String[] arg) {
         Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
         config.setTitle("Tanks");
         config.setWindowedMode(480, 800);
 
-        new Lwjgl3Application(new TanksGame(), config);
+        // flags in any order, the first other argument names the scenario
+        String scenarioName = null;
+        AllocationCounter allocationCounter = null;
+        boolean recordReplay = false;
+        boolean ecs = false;
+        for (String argument : arg) {
+            if (argument.equals("alloc")) {
+                // created here, on the thread that renders
+                allocationCounter = new ThreadAllocationCounter();
+            } else if (argument.equals("record")) {
+                recordReplay = true;
+            } else if (argument.equals("ecs")) {
+                ecs = true;
+            } else if (scenarioName == null) {
+                scenarioName = argument;
+            }
+        }
+        StressScenario scenario = StressScenario.forName(scenarioName);
+        new Lwjgl3Application(new TanksGame(scenario, allocationCounter, recordReplay, ecs), config);
     }
 }
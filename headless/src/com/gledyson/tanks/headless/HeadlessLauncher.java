@@ -0,0 +1,49 @@
+package com.gledyson.tanks.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.gledyson.tanks.spawn.StressScenario;
+
+// Runs AI-vs-AI matches on the headless backend: no window, textures or audio.
+// Usage: HeadlessLauncher [matches] [maxMatchSeconds] [box2d | ecs | default] [alloc]
+// alloc reports the bytes allocated per step and per phase (not in ecs mode)
+// ecs runs EcsWorld, which doesn't have all of GameWorld's enemy AI yet (see EcsWorld), its matches don't match the other modes
+//
+// Replays: HeadlessLauncher record <file> [scenario] [maxMatchSeconds] [box2d] records a bot match,
+// HeadlessLauncher replay <file> re-simulates one and checks it against the recording
+//
+// Pathfinding: HeadlessLauncher paths [matches] [maxMatchSeconds] has every enemy ask for a path
+// to the player through a wall with a moving gap, and reports the path service's numbers
+public class HeadlessLauncher {
+    public static void main(String[] arg) {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // call render() as fast as possible, the matches keep their own fixed step
+        config.updatesPerSecond = 0;
+
+        if (arg.length > 1 && arg[0].equals("record")) {
+            StressScenario scenario = StressScenario.forName(arg.length > 2 ? arg[2] : null);
+            float maxMatchTime = arg.length > 3 ? Float.parseFloat(arg[3]) : 120f;
+            boolean box2d = arg.length > 4 && arg[4].equals("box2d");
+            new HeadlessApplication(new ReplayRunner(arg[1], scenario, box2d, maxMatchTime), config);
+            return;
+        }
+        if (arg.length > 1 && arg[0].equals("replay")) {
+            new HeadlessApplication(new ReplayRunner(arg[1]), config);
+            return;
+        }
+
+        if (arg.length > 0 && arg[0].equals("paths")) {
+            int matches = arg.length > 1 ? Integer.parseInt(arg[1]) : 20;
+            float maxMatchTime = arg.length > 2 ? Float.parseFloat(arg[2]) : 120f;
+            new HeadlessApplication(new PathfindingRunner(matches, maxMatchTime), config);
+            return;
+        }
+
+        int matches = arg.length > 0 ? Integer.parseInt(arg[0]) : 1000;
+        float maxMatchTime = arg.length > 1 ? Float.parseFloat(arg[1]) : 120f;
+        String mode = arg.length > 2 ? arg[2] : "";
+        boolean trackAllocations = arg.length > 3 && arg[3].equals("alloc");
+
+        new HeadlessApplication(new MatchRunner(matches, maxMatchTime, mode.equals("box2d"), mode.equals("ecs"), trackAllocations), config);
+    }
+}
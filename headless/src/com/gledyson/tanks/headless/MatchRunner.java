@@ -0,0 +1,217 @@
+package com.gledyson.tanks.headless;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.ai.AiScheduler;
+import com.gledyson.tanks.debug.FrameProfiler;
+import com.gledyson.tanks.debug.jvm.ThreadAllocationCounter;
+import com.gledyson.tanks.ecs.EcsWorld;
+import com.gledyson.tanks.ecs.systems.TimedSystem;
+import com.gledyson.tanks.objects.PlayerTank;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.spawn.StressScenario;
+import com.gledyson.tanks.spawn.Wave;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.BotInput;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.WorldAdapter;
+
+// Plays one whole match per render() call, then prints totals and exits
+public class MatchRunner extends ApplicationAdapter {
+    private static final String TAG = "MatchRunner";
+
+    // same world size and step as the game screen
+    private static final float WIDTH = 480;
+    private static final float HEIGHT = 800;
+    private static final float SIMULATION_STEP = 1 / 60f;
+    private static final int PROFILED_STEPS = 600;
+    private static final long ALLOCATION_THRESHOLD = 1024; // bytes per step
+    // every match is seeded with its index and starts its tanks this far off the written spots
+    private static final float SPAWN_JITTER = 24f;
+    private static final float SPAWN_JITTER_DEGREES = 20f;
+
+    private final int matchCount;
+    private final float maxMatchTime;
+    private final boolean box2d;
+    private final boolean ecs;
+    private final boolean trackAllocations;
+    private final TankFactory tankFactory;
+    private Array<Wave> waves; // read once, shared by every match
+
+    private int matchesPlayed;
+    private int wins, losses, timeouts;
+    private long totalSteps;
+    private long shotsFired;
+    private long simulationNanos;
+
+    // enemy AI time per scheduler bucket
+    private final long[] aiNanos = new long[AiScheduler.BUCKET_COUNT];
+    private long decisionNanos;
+
+    // ecs mode: total time per system, by class name in update order
+    private final OrderedMap<String, Long> systemNanos = new OrderedMap<>();
+
+    // alloc mode: every step is a profiler frame, shared by all matches
+    private FrameProfiler profiler;
+
+    public MatchRunner(int matchCount, float maxMatchTime, boolean box2d, boolean ecs, boolean trackAllocations) {
+        this.matchCount = matchCount;
+        this.maxMatchTime = maxMatchTime;
+        this.box2d = box2d;
+        this.ecs = ecs;
+        this.trackAllocations = trackAllocations && !ecs;
+        this.tankFactory = new TankFactory();
+    }
+
+    @Override
+    public void create() {
+        waves = StressScenario.DEFAULT.loadWaves();
+        if (trackAllocations) {
+            // the matches run on this thread
+            profiler = new FrameProfiler(PROFILED_STEPS);
+            profiler.setAllocationCounter(new ThreadAllocationCounter(), ALLOCATION_THRESHOLD);
+            profiler.setEnabled(true);
+        }
+    }
+
+    @Override
+    public void render() {
+        if (matchesPlayed >= matchCount) return;
+
+        if (ecs) {
+            playEcsMatch();
+        } else {
+            playMatch();
+        }
+        matchesPlayed++;
+
+        if (matchesPlayed == matchCount) {
+            report();
+            Gdx.app.exit();
+        }
+    }
+
+    private void playMatch() {
+        // the simulation has no randomness of its own, the seed only moves the spawns
+        MathUtils.random.setSeed(matchesPlayed);
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, tankFactory, new WorldAdapter() {
+            @Override
+            public void onShotFired(Tank tank) {
+                shotsFired++;
+            }
+        });
+        if (box2d) {
+            world.enablePhysics();
+        }
+        WaveSpawner spawner = new WaveSpawner(world, waves);
+        spawner.setJitter(SPAWN_JITTER, SPAWN_JITTER_DEGREES);
+        PlayerTank player = world.getPlayerTank();
+        world.respawnPlayerTank(player,
+                player.getPositionX() + player.getWidth() / 2 + MathUtils.random(-SPAWN_JITTER, SPAWN_JITTER),
+                player.getPositionY() + player.getHeight() / 2 + MathUtils.random(-SPAWN_JITTER, SPAWN_JITTER),
+                player.getOrientation() * MathUtils.radiansToDegrees + MathUtils.random(-SPAWN_JITTER_DEGREES, SPAWN_JITTER_DEGREES));
+        BotInput bot = new BotInput(world);
+        if (profiler != null) {
+            // setting up the match isn't part of its first step
+            world.setProfiler(profiler);
+            profiler.discardFrame();
+        }
+
+        long start = TimeUtils.nanoTime();
+        while (true) {
+            if (profiler != null) profiler.begin(FrameProfiler.SPAWN);
+            spawner.update(SIMULATION_STEP);
+            if (profiler != null) profiler.end(FrameProfiler.SPAWN);
+
+            if (world.isPlayerDefeated()) {
+                losses++;
+                break;
+            }
+            if (world.areEnemiesDefeated() && spawner.isFinished()) {
+                wins++;
+                break;
+            }
+            if (world.getElapsedTime() >= maxMatchTime) {
+                timeouts++;
+                break;
+            }
+
+            world.step(SIMULATION_STEP, bot.poll(world.getPlayerTank()));
+            totalSteps++;
+            if (profiler != null) profiler.endFrame(SIMULATION_STEP);
+        }
+        simulationNanos += TimeUtils.timeSinceNanos(start);
+
+        for (int bucket = 0; bucket < AiScheduler.BUCKET_COUNT; bucket++) {
+            aiNanos[bucket] += world.getAiScheduler().getTotalNanos(bucket);
+        }
+        decisionNanos += world.getEnemyBrain().getTotalNanos();
+        world.dispose();
+    }
+
+    private void playEcsMatch() {
+        EcsWorld world = new EcsWorld(WIDTH, HEIGHT, tankFactory);
+        world.spawnDefaultEnemies(tankFactory);
+
+        long start = TimeUtils.nanoTime();
+        while (true) {
+            if (world.isPlayerDefeated()) {
+                losses++;
+                break;
+            }
+            if (world.areEnemiesDefeated()) {
+                wins++;
+                break;
+            }
+            if (world.getElapsedTime() >= maxMatchTime) {
+                timeouts++;
+                break;
+            }
+
+            world.step(SIMULATION_STEP, world.pollBot());
+            totalSteps++;
+        }
+        simulationNanos += TimeUtils.timeSinceNanos(start);
+        shotsFired += world.getShotsFired();
+
+        for (EntitySystem system : world.getSystems()) {
+            if (!(system instanceof TimedSystem)) continue;
+
+            String name = system.getClass().getSimpleName();
+            Long nanos = systemNanos.get(name, 0L);
+            systemNanos.put(name, nanos + ((TimedSystem) system).getNanos());
+        }
+    }
+
+    private void report() {
+        double seconds = simulationNanos / 1e9;
+        String seeds = ecs ? "" : ", seeds 0-" + (matchesPlayed - 1);
+        Gdx.app.log(TAG, matchesPlayed + " matches" + seeds + ": " + wins + " won, " + losses + " lost, " + timeouts + " timed out");
+        Gdx.app.log(TAG, totalSteps + " steps, " + shotsFired + " shots fired in " + String.format("%.2f", seconds) + "s");
+        Gdx.app.log(TAG, String.format("%.0f matches/min, %.0f steps/s, %.2f us/step",
+                matchesPlayed / seconds * 60,
+                totalSteps / seconds,
+                simulationNanos / 1e3 / Math.max(1, totalSteps)));
+
+        if (!ecs) {
+            Gdx.app.log(TAG, String.format("  AI near/mid/far %.2f / %.2f / %.2f us/step",
+                    aiNanos[AiScheduler.NEAR] / 1e3 / Math.max(1, totalSteps),
+                    aiNanos[AiScheduler.MID] / 1e3 / Math.max(1, totalSteps),
+                    aiNanos[AiScheduler.FAR] / 1e3 / Math.max(1, totalSteps)));
+            Gdx.app.log(TAG, String.format("  AI decisions %.2f us/step", decisionNanos / 1e3 / Math.max(1, totalSteps)));
+        }
+        for (ObjectMap.Entry<String, Long> entry : systemNanos) {
+            Gdx.app.log(TAG, String.format("  %-24s %.2f us/step", entry.key, entry.value / 1e3 / Math.max(1, totalSteps)));
+        }
+        if (profiler != null) {
+            Gdx.app.log(TAG, "Allocations per step:\n" + profiler.getAllocationReport());
+        }
+    }
+}
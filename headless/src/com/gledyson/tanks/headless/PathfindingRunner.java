@@ -0,0 +1,166 @@
+package com.gledyson.tanks.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.ai.NavigationGrid;
+import com.gledyson.tanks.ai.PathfindingService;
+import com.gledyson.tanks.ai.TileGraph.Tile;
+import com.gledyson.tanks.objects.EnemyTank;
+import com.gledyson.tanks.objects.PlayerTank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.spawn.StressScenario;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.BotInput;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.WorldAdapter;
+
+import java.util.Arrays;
+
+// Bot matches with a wall across the middle of the navigation grid, every enemy asking the
+// world's PathfindingService for a path to the player every step. The gap in the wall moves
+// every GAP_MOVE_TIME seconds, so cached paths and running searches go stale.
+// Reports requests, cache hits, searches and how many steps an enemy waits for its path.
+public class PathfindingRunner extends ApplicationAdapter {
+    private static final String TAG = "PathfindingRunner";
+
+    // same as the game screen and MatchRunner
+    private static final float WIDTH = 480;
+    private static final float HEIGHT = 800;
+    private static final float SIMULATION_STEP = 1 / 60f;
+
+    private static final int GAP_TILES = 3;
+    private static final float GAP_MOVE_TIME = 5f;
+
+    private final int matchCount;
+    private final float maxMatchTime;
+
+    private long steps;
+    private int gapMoves;
+    // an enemy's request starts when getPath() first returns null for it, and is answered by
+    // the next path it gets. Cached paths returned straight away aren't answers.
+    private long answered, unreachable;
+    private long waitedSteps; // steps from a request to its answer, over every answer
+    private long pathTiles;
+    private int maxQueued;
+
+    // steps each enemy has been waiting for its path, by tank id, 0 when it isn't waiting
+    private int[] waiting = new int[64];
+
+    public PathfindingRunner(int matchCount, float maxMatchTime) {
+        this.matchCount = matchCount;
+        this.maxMatchTime = maxMatchTime;
+    }
+
+    @Override
+    public void create() {
+        int requests = 0, cacheHits = 0, searches = 0;
+        long searchNanos = 0;
+        for (int match = 0; match < matchCount; match++) {
+            MathUtils.random.setSeed(match);
+            PathfindingService pathfinding = playMatch();
+            requests += pathfinding.getRequestCount();
+            cacheHits += pathfinding.getCacheHits();
+            searches += pathfinding.getSearchCount();
+            searchNanos += pathfinding.getSearchNanos();
+        }
+
+        Gdx.app.log(TAG, matchCount + " matches, seeds 0-" + (matchCount - 1) + ": " + steps + " steps, gap moved " + gapMoves + " times");
+        Gdx.app.log(TAG, String.format("%d lookups, %.1f%% cache hits, %d searches, %.2f us/step searching",
+                requests, 100f * cacheHits / Math.max(1, requests), searches, searchNanos / 1e3 / Math.max(1, steps)));
+        Gdx.app.log(TAG, String.format("%d requests answered (%d unreachable), %.1f tiles avg, %.2f steps waited avg, %d queued at most",
+                answered, unreachable, pathTiles / (float) Math.max(1, answered - unreachable),
+                waitedSteps / (float) Math.max(1, answered), maxQueued));
+        Gdx.app.exit();
+    }
+
+    private PathfindingService playMatch() {
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, new TankFactory(), new WorldAdapter());
+        WaveSpawner spawner = StressScenario.DEFAULT.apply(world);
+        BotInput bot = new BotInput(world);
+        PathfindingService pathfinding = world.getPathfinding();
+        NavigationGrid grid = world.getNavigationGrid();
+        // tank ids start over every match
+        Arrays.fill(waiting, 0);
+
+        int wallRow = grid.getRows() / 2;
+        int gapColumn = placeWall(grid, wallRow, -1);
+        float gapTime = 0f;
+
+        while (!world.isPlayerDefeated() && !(world.areEnemiesDefeated() && spawner.isFinished())
+                && world.getElapsedTime() < maxMatchTime) {
+            spawner.update(SIMULATION_STEP);
+
+            gapTime += SIMULATION_STEP;
+            if (gapTime >= GAP_MOVE_TIME) {
+                gapColumn = placeWall(grid, wallRow, gapColumn);
+                gapTime = 0f;
+                gapMoves++;
+            }
+
+            requestPaths(world, pathfinding);
+            maxQueued = Math.max(maxQueued, pathfinding.getQueuedCount());
+
+            // the world runs the queued searches
+            world.step(SIMULATION_STEP, bot.poll(world.getPlayerTank()));
+            steps++;
+        }
+        world.dispose();
+        return pathfinding;
+    }
+
+    private void requestPaths(GameWorld world, PathfindingService pathfinding) {
+        PlayerTank player = world.getPlayerTank();
+        float goalX = player.getPositionX() + player.getWidth() / 2;
+        float goalY = player.getPositionY() + player.getHeight() / 2;
+
+        Array<EnemyTank> enemies = world.getEnemyTanks();
+        for (int i = 0; i < enemies.size; i++) {
+            EnemyTank enemy = enemies.get(i);
+            int id = enemy.getId();
+            if (id >= waiting.length) {
+                int[] resized = new int[Math.max(id + 1, waiting.length * 2)];
+                System.arraycopy(waiting, 0, resized, 0, waiting.length);
+                waiting = resized;
+            }
+            if (enemy.isDead()) {
+                // the request dies with it, a pooled tank coming back starts over
+                waiting[id] = 0;
+                continue;
+            }
+
+            GraphPath<Tile> path = pathfinding.getPath(
+                    enemy.getPositionX() + enemy.getWidth() / 2, enemy.getPositionY() + enemy.getHeight() / 2,
+                    goalX, goalY);
+            if (path == null) {
+                waiting[id]++;
+                continue;
+            }
+            if (waiting[id] == 0) continue; // a cached path, counted as a cache hit
+
+            answered++;
+            waitedSteps += waiting[id];
+            waiting[id] = 0;
+            if (path.getCount() == 0) {
+                unreachable++;
+            } else {
+                pathTiles += path.getCount();
+            }
+        }
+    }
+
+    // Blocks the whole row but a gap at a random column other than the last one, returns it
+    private int placeWall(NavigationGrid grid, int row, int lastGap) {
+        int gap;
+        do {
+            gap = MathUtils.random(grid.getColumns() - GAP_TILES);
+        } while (gap == lastGap);
+
+        for (int column = 0; column < grid.getColumns(); column++) {
+            grid.setBlocked(column, row, column < gap || column >= gap + GAP_TILES);
+        }
+        return gap;
+    }
+}
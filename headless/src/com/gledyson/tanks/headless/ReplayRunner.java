@@ -0,0 +1,122 @@
+package com.gledyson.tanks.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.replay.Replay;
+import com.gledyson.tanks.replay.ReplayPlayer;
+import com.gledyson.tanks.replay.ReplayRecorder;
+import com.gledyson.tanks.spawn.StressScenario;
+import com.gledyson.tanks.spawn.WaveSpawner;
+import com.gledyson.tanks.world.BotInput;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.WorldAdapter;
+
+import java.io.File;
+
+// Records one bot match to a replay file, or re-simulates a replay as fast as possible and
+// checks it against the recorded checksums. Reports the slowest step, to find spikes again.
+public class ReplayRunner extends ApplicationAdapter {
+    private static final String TAG = "ReplayRunner";
+
+    // same as the game screen and MatchRunner
+    private static final float WIDTH = 480;
+    private static final float HEIGHT = 800;
+    private static final float SIMULATION_STEP = 1 / 60f;
+
+    private final String path;
+    private FileHandle file;
+    private final boolean record;
+    private final StressScenario scenario;
+    private final boolean box2d;
+    private final float maxMatchTime;
+
+    // when recording
+    public ReplayRunner(String path, StressScenario scenario, boolean box2d, float maxMatchTime) {
+        this.path = path;
+        this.record = true;
+        this.scenario = scenario;
+        this.box2d = box2d;
+        this.maxMatchTime = maxMatchTime;
+    }
+
+    // when replaying, the rest comes from the file
+    public ReplayRunner(String path) {
+        this.path = path;
+        this.record = false;
+        this.scenario = null;
+        this.box2d = false;
+        this.maxMatchTime = 0;
+    }
+
+    @Override
+    public void create() {
+        // relative paths from the working directory, like the assets
+        file = Gdx.files.absolute(new File(path).getAbsolutePath());
+        if (record) {
+            recordMatch();
+        } else {
+            playReplay();
+        }
+        Gdx.app.exit();
+    }
+
+    private void recordMatch() {
+        Replay replay = new Replay(MathUtils.random.nextLong(), scenario, box2d, SIMULATION_STEP);
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, new TankFactory(), new WorldAdapter());
+        WaveSpawner spawner = replay.setUp(world);
+        ReplayRecorder recorder = new ReplayRecorder(replay, world);
+        BotInput bot = new BotInput(world);
+
+        while (!world.isPlayerDefeated()
+                && !(world.areEnemiesDefeated() && spawner.isFinished())
+                && world.getElapsedTime() < maxMatchTime) {
+            spawner.update(SIMULATION_STEP);
+            int input = bot.poll(world.getPlayerTank());
+            world.step(SIMULATION_STEP, input);
+            recorder.record(input);
+        }
+        recorder.finish().write(file);
+        world.dispose();
+
+        Gdx.app.log(TAG, "Recorded " + replay.getStepCount() + " steps in " + replay.getRunCount()
+                + " input runs to " + file.path() + " (" + file.length() + " bytes)");
+    }
+
+    private void playReplay() {
+        Replay replay = Replay.read(file);
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, new TankFactory(), new WorldAdapter());
+        WaveSpawner spawner = replay.setUp(world);
+        ReplayPlayer player = new ReplayPlayer(replay, world);
+
+        long slowestNanos = 0;
+        int slowestStep = 0;
+        long start = TimeUtils.nanoTime();
+        while (!player.isFinished()) {
+            long stepStart = TimeUtils.nanoTime();
+            spawner.update(replay.getStep());
+            world.step(replay.getStep(), player.nextInput());
+            long stepNanos = TimeUtils.timeSinceNanos(stepStart);
+            if (stepNanos > slowestNanos) {
+                slowestNanos = stepNanos;
+                slowestStep = player.getStep();
+            }
+            player.verify();
+        }
+        long nanos = TimeUtils.timeSinceNanos(start);
+        world.dispose();
+
+        double simulated = replay.getStepCount() * replay.getStep();
+        Gdx.app.log(TAG, replay.getStepCount() + " steps of " + replay.getScenario() + (replay.isPhysics() ? " (box2d)" : "")
+                + String.format(" in %.3fs, %.0fx real time", nanos / 1e9, simulated / (nanos / 1e9)));
+        Gdx.app.log(TAG, String.format("slowest step %d: %.2f ms", slowestStep, slowestNanos / 1e6));
+        if (player.getFirstMismatch() < 0) {
+            Gdx.app.log(TAG, "matches the recording");
+        } else {
+            Gdx.app.error(TAG, "diverged from the recording at step " + player.getFirstMismatch());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.gledyson.tanks.server;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.gledyson.tanks.world.PlayerInput;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+// A client without a screen: drives its tank with random inputs and decodes the snapshots
+// like a game client would. Many of them share one Selector and thread (see LoopbackTest).
+public class BotClient {
+    private static final int[] MOVES = {
+            PlayerInput.FORWARD, PlayerInput.FORWARD | PlayerInput.TURN_LEFT,
+            PlayerInput.FORWARD | PlayerInput.TURN_RIGHT, PlayerInput.REVERSE,
+            PlayerInput.TURN_LEFT, PlayerInput.NONE
+    };
+
+    private final DatagramChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocate(Protocol.MAX_PACKET);
+    private final RandomXS128 random;
+
+    private int tankId = -1;
+    private boolean rejected;
+
+    // decoded snapshots to resolve baselines against, written round robin
+    private final WorldState[] history = new WorldState[Protocol.HISTORY];
+    private final WorldState empty = new WorldState();
+    private int historyIndex;
+    private WorldState latest;
+
+    // newest first
+    private final byte[] inputs = new byte[Protocol.INPUT_REDUNDANCY];
+    private int sequence = -1;
+    private int move;
+    private float moveTime;
+
+    // Stats
+    private int snapshots;
+    private int undecodable; // baseline already gone from the history
+    private long bytesReceived;
+
+    public BotClient(SocketAddress server, Selector selector, long seed) throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(server);
+        channel.register(selector, SelectionKey.OP_READ, this);
+        random = new RandomXS128(seed);
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new WorldState();
+        }
+    }
+
+    public void connect() throws IOException {
+        out.clear();
+        out.put(Protocol.CONNECT);
+        out.putInt(Protocol.VERSION);
+        send();
+    }
+
+    // Picks the next input and sends it, along with the last few in case some got lost
+    public void sendInput(float delta) throws IOException {
+        if (!isConnected()) {
+            connect(); // the connect or its welcome got lost
+            return;
+        }
+
+        moveTime -= delta;
+        if (moveTime <= 0) {
+            move = MOVES[random.nextInt(MOVES.length)];
+            moveTime = 0.5f + random.nextFloat() * 1.5f;
+        }
+        int input = move | (random.nextInt(8) == 0 ? PlayerInput.FIRE : 0);
+
+        System.arraycopy(inputs, 0, inputs, 1, inputs.length - 1);
+        inputs[0] = (byte) input;
+        sequence++;
+
+        out.clear();
+        out.put(Protocol.INPUT);
+        out.putInt(latest != null ? latest.getTick() : -1);
+        out.putInt(sequence);
+        int count = Math.min(sequence + 1, inputs.length);
+        out.put((byte) count);
+        out.put(inputs, 0, count);
+        send();
+    }
+
+    public void disconnect() throws IOException {
+        out.clear();
+        out.put(Protocol.DISCONNECT);
+        send();
+        channel.close();
+    }
+
+    // Reads every waiting packet
+    public void receive() throws IOException {
+        while (true) {
+            in.clear();
+            if (channel.receive(in) == null) return;
+
+            in.flip();
+            bytesReceived += in.remaining();
+            try {
+                handle();
+            } catch (BufferUnderflowException e) {
+                // truncated packet, ignored
+            }
+        }
+    }
+
+    private void handle() {
+        switch (in.get()) {
+            case Protocol.WELCOME:
+                tankId = in.getShort();
+                break;
+            case Protocol.REJECT:
+                rejected = true;
+                break;
+            case Protocol.SNAPSHOT:
+                int tick = in.getInt();
+                int baselineTick = in.getInt();
+                if (latest != null && tick <= latest.getTick()) return; // late
+
+                WorldState baseline = baselineTick < 0 ? empty : find(baselineTick);
+                if (baseline == null) {
+                    undecodable++;
+                    return;
+                }
+                // decoding into the baseline's own slot works too, it's only ever overwritten in place
+                WorldState state = history[historyIndex];
+                historyIndex = (historyIndex + 1) % history.length;
+                state.readDelta(in, baseline, tick);
+                latest = state;
+                snapshots++;
+                break;
+        }
+    }
+
+    private WorldState find(int tick) {
+        for (WorldState state : history) {
+            if (state.getTick() == tick) return state;
+        }
+        return null;
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        channel.write(out);
+    }
+
+    public boolean isConnected() {
+        return tankId >= 0;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public int getTankId() {
+        return tankId;
+    }
+
+    // The newest snapshot decoded, null before the first one
+    public WorldState getLatest() {
+        return latest;
+    }
+
+    public int getSnapshots() {
+        return snapshots;
+    }
+
+    public int getUndecodable() {
+        return undecodable;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+}
@@ -0,0 +1,68 @@
+package com.gledyson.tanks.server;
+
+import com.gledyson.tanks.objects.PlayerTank;
+import com.gledyson.tanks.world.PlayerInput;
+
+import java.net.SocketAddress;
+
+// What the server knows about one client: where it is, its tank and input, and the newest
+// snapshot it acked, which the next snapshot is encoded against.
+class ClientConnection {
+    final SocketAddress address;
+    final int slot; // index into the world's player tanks
+    final PlayerTank tank;
+
+    private int input;
+    private int latchedFire; // FIRE from inputs the server hasn't stepped yet
+    private int lastSequence = -1;
+    private int ackTick = -1;
+    private float silentTime;
+    private float respawnTime;
+
+    ClientConnection(SocketAddress address, int slot, PlayerTank tank) {
+        this.address = address;
+        this.slot = slot;
+        this.tank = tank;
+    }
+
+    // inputs newest first, the first one being for sequence
+    void receiveInput(int sequence, byte[] inputs, int count, int ack) {
+        silentTime = 0f;
+        if (ack > ackTick) ackTick = ack;
+        if (sequence <= lastSequence) return; // late or duplicate
+
+        // the inputs this client sent since the last one that got here, a FIRE in any of them counts
+        int unseen = Math.min(count, sequence - lastSequence);
+        for (int i = 0; i < unseen; i++) {
+            latchedFire |= inputs[i] & PlayerInput.FIRE;
+        }
+        input = inputs[0];
+        lastSequence = sequence;
+    }
+
+    // the input for the next step
+    int takeInput() {
+        int stepInput = input | latchedFire;
+        latchedFire = 0;
+        return stepInput;
+    }
+
+    // true once nothing was heard for longer than timeout
+    boolean update(float delta, float timeout) {
+        silentTime += delta;
+        if (respawnTime > 0) respawnTime -= delta;
+        return silentTime > timeout;
+    }
+
+    int getAckTick() {
+        return ackTick;
+    }
+
+    float getRespawnTime() {
+        return respawnTime;
+    }
+
+    void setRespawnTime(float respawnTime) {
+        this.respawnTime = respawnTime;
+    }
+}
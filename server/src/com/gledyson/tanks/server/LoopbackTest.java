@@ -0,0 +1,110 @@
+package com.gledyson.tanks.server;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+// Starts a server and connects bot clients to it over loopback UDP, all bots on this thread.
+// Afterwards every bot's last decoded snapshot is checked against the one the server sent.
+// Usage: LoopbackTest [clients] [seconds] [port] [snapshotsPerSecond]
+public class LoopbackTest {
+    private static final String TAG = "LoopbackTest";
+
+    // bots send input as often as the server sends snapshots
+    public static void main(String[] arg) throws IOException, InterruptedException {
+        int clientCount = arg.length > 0 ? Integer.parseInt(arg[0]) : 32;
+        float seconds = arg.length > 1 ? Float.parseFloat(arg[1]) : 20f;
+        int port = arg.length > 2 ? Integer.parseInt(arg[2]) : ServerLauncher.DEFAULT_PORT;
+        int snapshotsPerSecond = arg.length > 3 ? Integer.parseInt(arg[3]) : ServerLauncher.DEFAULT_SNAPSHOT_RATE;
+
+        TankServer server = new TankServer(port, snapshotsPerSecond);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 0;
+        new HeadlessApplication(server, config);
+        while (!server.isListening()) {
+            if (server.isStopped()) return; // couldn't bind
+            Thread.sleep(10);
+        }
+
+        Selector selector = Selector.open();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+        Array<BotClient> bots = new Array<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            BotClient bot = new BotClient(address, selector, i + 1);
+            bot.connect();
+            bots.add(bot);
+        }
+
+        float inputInterval = 1f / snapshotsPerSecond;
+        long inputNanos = (long) (inputInterval * 1e9);
+        long start = TimeUtils.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long nextInput = start;
+        // the last 250 ms only receive, so the bots end up with the server's latest snapshots
+        long quiet = end - 250000000L;
+        while (TimeUtils.nanoTime() < end) {
+            long now = TimeUtils.nanoTime();
+            if (now - nextInput >= 0 && now < quiet) {
+                for (BotClient bot : bots) {
+                    bot.sendInput(inputInterval);
+                }
+                nextInput += inputNanos;
+            }
+
+            long wait = Math.max(1, (Math.min(nextInput, end) - TimeUtils.nanoTime()) / 1000000);
+            if (selector.select(wait) == 0) continue;
+            for (SelectionKey key : selector.selectedKeys()) {
+                ((BotClient) key.attachment()).receive();
+            }
+            selector.selectedKeys().clear();
+        }
+
+        server.stop();
+        while (!server.isStopped()) {
+            Thread.sleep(10);
+        }
+        report(bots, server, seconds);
+
+        for (BotClient bot : bots) {
+            bot.disconnect();
+        }
+        selector.close();
+    }
+
+    private static void report(Array<BotClient> bots, TankServer server, float seconds) {
+        int connected = 0, rejected = 0, matching = 0, mismatched = 0, tooOld = 0;
+        long snapshots = 0, undecodable = 0, bytes = 0;
+        for (BotClient bot : bots) {
+            if (bot.isConnected()) connected++;
+            if (bot.isRejected()) rejected++;
+            snapshots += bot.getSnapshots();
+            undecodable += bot.getUndecodable();
+            bytes += bot.getBytesReceived();
+
+            WorldState latest = bot.getLatest();
+            if (latest == null) continue;
+            WorldState sent = server.getSnapshot(latest.getTick());
+            if (sent == null) {
+                tooOld++;
+            } else if (sent.matches(latest)) {
+                matching++;
+            } else {
+                mismatched++;
+                Gdx.app.error(TAG, "Tank " + bot.getTankId() + " decoded tick " + latest.getTick() + " differently than sent");
+            }
+        }
+
+        int count = Math.max(1, bots.size);
+        Gdx.app.log(TAG, bots.size + " clients: " + connected + " connected, " + rejected + " rejected, server at tick " + server.getTick());
+        Gdx.app.log(TAG, String.format("%.1f snapshots/s and %.0f B/s per client, %d undecodable",
+                snapshots / seconds / count, bytes / seconds / count, undecodable));
+        Gdx.app.log(TAG, "Last snapshot: " + matching + " match the server, " + mismatched + " differ, " + tooOld + " too old to check");
+    }
+}
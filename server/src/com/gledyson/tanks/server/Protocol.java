@@ -0,0 +1,42 @@
+package com.gledyson.tanks.server;
+
+// Packets between TankServer and its clients, one UDP datagram each. Every packet starts with
+// its type byte, numbers follow as ByteBuffer writes them (big-endian).
+//
+// client -> server
+//   CONNECT     version int
+//   INPUT       ack int, sequence int, count byte, then count PlayerInput masks as bytes,
+//               newest first. ack is the newest snapshot tick received (-1 for none), the
+//               older inputs are resent so a lost packet doesn't lose a shot.
+//   DISCONNECT
+//
+// server -> client
+//   WELCOME     tank id short, snapshots per second byte
+//   REJECT      server full, or another protocol version
+//   SNAPSHOT    tick int, baseline tick int (-1 for none), then the state as changes from the
+//               baseline the client acked (see WorldState)
+public final class Protocol {
+    public static final int VERSION = 1;
+
+    // stays below the usual MTU, so packets aren't fragmented
+    public static final int MAX_PACKET = 1200;
+
+    // client -> server
+    public static final byte CONNECT = 1;
+    public static final byte INPUT = 2;
+    public static final byte DISCONNECT = 3;
+
+    // server -> client
+    public static final byte WELCOME = 1;
+    public static final byte REJECT = 2;
+    public static final byte SNAPSHOT = 3;
+
+    // inputs per INPUT packet
+    public static final int INPUT_REDUNDANCY = 4;
+
+    // snapshots kept on both ends to encode against, power of two
+    public static final int HISTORY = 32;
+
+    private Protocol() {
+    }
+}
@@ -0,0 +1,21 @@
+package com.gledyson.tanks.server;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+// Runs the authoritative server on the headless backend.
+// Usage: ServerLauncher [port] [snapshotsPerSecond]
+public class ServerLauncher {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int DEFAULT_SNAPSHOT_RATE = 30;
+
+    public static void main(String[] arg) {
+        int port = arg.length > 0 ? Integer.parseInt(arg[0]) : DEFAULT_PORT;
+        int snapshotsPerSecond = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_SNAPSHOT_RATE;
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // the server keeps its own clock in create()
+        config.updatesPerSecond = 0;
+        new HeadlessApplication(new TankServer(port, snapshotsPerSecond), config);
+    }
+}
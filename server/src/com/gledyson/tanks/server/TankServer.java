@@ -0,0 +1,363 @@
+package com.gledyson.tanks.server;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gledyson.tanks.objects.PlayerTank;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.objects.TankFactory;
+import com.gledyson.tanks.world.GameWorld;
+import com.gledyson.tanks.world.PlayerInput;
+import com.gledyson.tanks.world.WorldAdapter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+// Authoritative free-for-all server: one GameWorld, every client drives its own PlayerTank.
+// A single thread does everything: a non-blocking DatagramChannel is drained whenever the
+// Selector wakes up or a step is due, the world steps at SIMULATION_STEP with each client's
+// latest input, and every snapshotInterval steps each client gets a snapshot encoded against
+// the newest one it acked (see WorldState and Protocol).
+// Runs inside a headless application for Gdx.files and logging, create() only returns once
+// stop() was called.
+public class TankServer extends ApplicationAdapter {
+    private static final String TAG = "TankServer";
+
+    // same world and step as the game
+    private static final float WIDTH = 480;
+    private static final float HEIGHT = 800;
+    private static final float SIMULATION_STEP = 1 / 60f;
+
+    private static final int MAX_CLIENTS = 64;
+    private static final float CLIENT_TIMEOUT = 5f;
+    private static final float RESPAWN_TIME = 3f;
+    // every player is a team of its own
+    private static final int FIRST_PLAYER_TEAM = Tank.TEAM_ENEMY + 1;
+    private static final float STATS_INTERVAL = 5f;
+
+    private final int port;
+    private final int snapshotsPerSecond;
+    private final int snapshotInterval; // steps between snapshots
+    private volatile boolean running = true;
+    private volatile boolean listening;
+    private volatile boolean stopped;
+
+    private DatagramChannel channel;
+    private Selector selector;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(Protocol.MAX_PACKET);
+    private final byte[] receivedInputs = new byte[Protocol.INPUT_REDUNDANCY];
+
+    private GameWorld world;
+    private final ClientConnection[] clients = new ClientConnection[MAX_CLIENTS]; // by slot
+    private final ObjectMap<SocketAddress, ClientConnection> clientsByAddress = new ObjectMap<>();
+    private int[] inputs = new int[MAX_CLIENTS];
+
+    // the last HISTORY snapshots sent
+    private final WorldState[] history = new WorldState[Protocol.HISTORY];
+    private final WorldState empty = new WorldState();
+    private int tick;
+
+    // Stats, since the last report
+    private long stepNanos;
+    private long maxStepNanos;
+    private int steps;
+    private long bytesSent;
+    private int snapshotsSent;
+    private int fullSnapshots;
+    private int packetsReceived;
+    private float statsTime;
+
+    public TankServer(int port, int snapshotsPerSecond) {
+        this.port = port;
+        this.snapshotsPerSecond = snapshotsPerSecond;
+        this.snapshotInterval = Math.max(1, Math.round(1 / SIMULATION_STEP / snapshotsPerSecond));
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new WorldState();
+        }
+    }
+
+    @Override
+    public void create() {
+        world = new GameWorld(WIDTH, HEIGHT, new TankFactory(), new WorldAdapter());
+        // the local player of a single player world, here the first client's tank
+        world.getPlayerTank().setActive(false);
+
+        try {
+            selector = Selector.open();
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.bind(new InetSocketAddress(port));
+            channel.register(selector, SelectionKey.OP_READ);
+            listening = true;
+            Gdx.app.log(TAG, "Listening on UDP " + channel.getLocalAddress() + ", " + snapshotsPerSecond + " snapshots/s");
+
+            run();
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Server stopped", e);
+        } finally {
+            close();
+            stopped = true;
+            Gdx.app.exit();
+        }
+    }
+
+    private void run() throws IOException {
+        long stepNanosTarget = (long) (SIMULATION_STEP * 1e9);
+        long nextStep = TimeUtils.nanoTime();
+        while (running) {
+            long wait = nextStep - TimeUtils.nanoTime();
+            if (wait >= 1000000) {
+                selector.select(wait / 1000000);
+            } else {
+                selector.selectNow();
+            }
+            selector.selectedKeys().clear();
+            receive();
+
+            if (TimeUtils.nanoTime() - nextStep >= 0) {
+                step();
+                nextStep += stepNanosTarget;
+                // too far behind, e.g. after a stall: drop the missed steps instead of rushing
+                if (TimeUtils.nanoTime() - nextStep > 5 * stepNanosTarget) {
+                    nextStep = TimeUtils.nanoTime();
+                }
+            }
+        }
+    }
+
+    private void receive() throws IOException {
+        while (true) {
+            in.clear();
+            SocketAddress address = channel.receive(in);
+            if (address == null) return;
+
+            in.flip();
+            packetsReceived++;
+            try {
+                handle(address);
+            } catch (BufferUnderflowException e) {
+                // truncated or garbage packet, ignored
+            }
+        }
+    }
+
+    private void handle(SocketAddress address) throws IOException {
+        byte type = in.get();
+        ClientConnection client = clientsByAddress.get(address);
+        switch (type) {
+            case Protocol.CONNECT:
+                if (in.getInt() != Protocol.VERSION) {
+                    sendReject(address);
+                } else if (client != null) {
+                    sendWelcome(client); // the first welcome got lost
+                } else {
+                    connect(address);
+                }
+                break;
+            case Protocol.INPUT:
+                if (client == null) return;
+                int ack = in.getInt();
+                int sequence = in.getInt();
+                int count = Math.min(in.get(), receivedInputs.length);
+                for (int i = 0; i < count; i++) {
+                    receivedInputs[i] = in.get();
+                }
+                if (count > 0) client.receiveInput(sequence, receivedInputs, count, ack);
+                break;
+            case Protocol.DISCONNECT:
+                if (client != null) disconnect(client, "left");
+                break;
+        }
+    }
+
+    private void connect(SocketAddress address) throws IOException {
+        int slot = -1;
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] == null) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            sendReject(address);
+            return;
+        }
+
+        // player tanks stay in the world once built, a new client reuses its slot's tank
+        Array<PlayerTank> players = world.getPlayerTanks();
+        while (players.size <= slot) {
+            world.addPlayerTank(0, 0, 0, FIRST_PLAYER_TEAM + players.size).setActive(false);
+        }
+        PlayerTank tank = players.get(slot);
+        tank.setTeam(FIRST_PLAYER_TEAM + slot);
+        respawn(tank, slot);
+
+        ClientConnection client = new ClientConnection(address, slot, tank);
+        clients[slot] = client;
+        clientsByAddress.put(address, client);
+        sendWelcome(client);
+        Gdx.app.log(TAG, address + " joined as tank " + tank.getId());
+    }
+
+    private void disconnect(ClientConnection client, String reason) {
+        clients[client.slot] = null;
+        clientsByAddress.remove(client.address);
+        client.tank.setActive(false);
+        Gdx.app.log(TAG, client.address + " " + reason);
+    }
+
+    // spots on a grid, one per slot
+    private void respawn(PlayerTank tank, int slot) {
+        float centerX = 40 + (slot % 6) * 80;
+        float centerY = 60 + (slot / 6) * 70;
+        world.respawnPlayerTank(tank, centerX, centerY, (slot * 45) % 360);
+    }
+
+    private void step() throws IOException {
+        long start = TimeUtils.nanoTime();
+
+        for (int slot = 0; slot < clients.length; slot++) {
+            ClientConnection client = clients[slot];
+            inputs[slot] = PlayerInput.NONE;
+            if (client == null) continue;
+
+            if (client.update(SIMULATION_STEP, CLIENT_TIMEOUT)) {
+                disconnect(client, "timed out");
+                continue;
+            }
+            if (client.tank.isDead()) {
+                if (client.getRespawnTime() <= 0) {
+                    client.setRespawnTime(RESPAWN_TIME);
+                } else if (client.getRespawnTime() <= SIMULATION_STEP) {
+                    respawn(client.tank, slot);
+                    client.setRespawnTime(0f);
+                }
+                continue;
+            }
+            inputs[slot] = client.takeInput();
+        }
+        world.step(SIMULATION_STEP, inputs);
+        tick++;
+
+        if (tick % snapshotInterval == 0) {
+            sendSnapshots();
+        }
+
+        long nanos = TimeUtils.timeSinceNanos(start);
+        stepNanos += nanos;
+        maxStepNanos = Math.max(maxStepNanos, nanos);
+        steps++;
+        statsTime += SIMULATION_STEP;
+        if (statsTime >= STATS_INTERVAL) {
+            logStats();
+        }
+    }
+
+    private void sendSnapshots() throws IOException {
+        WorldState state = history[historySlot(tick)];
+        state.capture(world, tick);
+
+        for (ClientConnection client : clients) {
+            if (client == null) continue;
+
+            // encode against the newest snapshot the client has, if it's still in the history
+            int ack = client.getAckTick();
+            WorldState baseline = empty;
+            if (ack >= 0 && ack < tick) {
+                WorldState acked = history[historySlot(ack)];
+                if (acked.getTick() == ack) baseline = acked;
+            }
+
+            out.clear();
+            out.put(Protocol.SNAPSHOT);
+            out.putInt(tick);
+            out.putInt(baseline.getTick());
+            state.writeDelta(out, baseline);
+            out.flip();
+            bytesSent += out.remaining();
+            channel.send(out, client.address);
+
+            snapshotsSent++;
+            if (baseline == empty) fullSnapshots++;
+        }
+    }
+
+    private void sendWelcome(ClientConnection client) throws IOException {
+        out.clear();
+        out.put(Protocol.WELCOME);
+        out.putShort((short) client.tank.getId());
+        out.put((byte) snapshotsPerSecond);
+        out.flip();
+        channel.send(out, client.address);
+    }
+
+    private void sendReject(SocketAddress address) throws IOException {
+        out.clear();
+        out.put(Protocol.REJECT);
+        out.flip();
+        channel.send(out, address);
+    }
+
+    private void logStats() {
+        Gdx.app.log(TAG, String.format("%d clients, step %.1f us avg / %.1f us max, %d snapshots (%d full), %.0f B/snapshot, %d packets in",
+                clientsByAddress.size,
+                stepNanos / 1e3 / Math.max(1, steps), maxStepNanos / 1e3,
+                snapshotsSent, fullSnapshots, bytesSent / (float) Math.max(1, snapshotsSent),
+                packetsReceived));
+        stepNanos = 0;
+        maxStepNanos = 0;
+        steps = 0;
+        bytesSent = 0;
+        snapshotsSent = 0;
+        fullSnapshots = 0;
+        packetsReceived = 0;
+        statsTime = 0f;
+    }
+
+    private void close() {
+        try {
+            if (selector != null) selector.close();
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Error closing the channel", e);
+        }
+        if (world != null) world.dispose();
+    }
+
+    // From any thread, the server stops after the current step
+    public void stop() {
+        running = false;
+        if (selector != null) selector.wakeup();
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    // The snapshot sent at tick, null once it left the history. Only safe to read after the server stopped.
+    public WorldState getSnapshot(int tick) {
+        WorldState state = history[historySlot(tick)];
+        return state.getTick() == tick ? state : null;
+    }
+
+    private int historySlot(int tick) {
+        return (tick / snapshotInterval) & (Protocol.HISTORY - 1);
+    }
+
+    public int getTick() {
+        return tick;
+    }
+}
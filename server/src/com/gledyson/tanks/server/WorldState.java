@@ -0,0 +1,263 @@
+package com.gledyson.tanks.server;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.gledyson.tanks.objects.Projectiles;
+import com.gledyson.tanks.objects.Tank;
+import com.gledyson.tanks.world.GameWorld;
+
+import java.nio.ByteBuffer;
+
+// The world at one tick, quantized the way it goes over the network:
+// positions in 1/8 px and orientations in 1/65536 turns as shorts, health as a short.
+// Tanks are sent as changes from a baseline state, a bit mask per changed tank saying which
+// fields follow, and an empty state as baseline makes a full snapshot. Shots are sent whole,
+// their slots move around whenever one is removed, as many as fit in the packet.
+public class WorldState {
+    public static final int POSITION_SCALE = 8;
+
+    public static final int FLAG_ACTIVE = 1;
+    public static final int FLAG_DEAD = 1 << 1;
+
+    // which tank fields a delta carries
+    private static final int FIELD_X = 1;
+    private static final int FIELD_Y = 1 << 1;
+    private static final int FIELD_ANGLE = 1 << 2;
+    private static final int FIELD_HEALTH = 1 << 3;
+    private static final int FIELD_FLAGS = 1 << 4;
+    private static final int FIELD_TEAM = 1 << 5;
+
+    // bytes per shot on the wire
+    private static final int SHOT_SIZE = 6;
+
+    private int tick = -1;
+
+    // by tank id
+    private int tankCount;
+    private short[] x = new short[16];
+    private short[] y = new short[16];
+    private short[] angle = new short[16];
+    private short[] health = new short[16];
+    private byte[] flags = new byte[16];
+    private byte[] team = new byte[16];
+
+    private int shotCount;
+    private short[] shotX = new short[64];
+    private short[] shotY = new short[64];
+    private byte[] shotAngle = new byte[64]; // 1/256 turns
+    private byte[] shotTeam = new byte[64];
+
+    public void capture(GameWorld world, int tick) {
+        this.tick = tick;
+
+        Array<Tank> tanks = world.getTanks();
+        setTankCount(tanks.size);
+        for (int i = 0; i < tanks.size; i++) {
+            Tank tank = tanks.get(i);
+            x[i] = quantize(tank.getPositionX());
+            y[i] = quantize(tank.getPositionY());
+            angle[i] = (short) MathUtils.round(tank.getOrientation() / MathUtils.PI2 * 65536);
+            health[i] = (short) tank.getHealth();
+            flags[i] = (byte) ((tank.isActive() ? FLAG_ACTIVE : 0) | (tank.isDead() ? FLAG_DEAD : 0));
+            team[i] = (byte) tank.getTeam();
+        }
+
+        Projectiles projectiles = world.getProjectiles();
+        setShotCount(projectiles.getCount());
+        for (int i = 0; i < shotCount; i++) {
+            shotX[i] = quantize(projectiles.getX(i) + projectiles.getWidth(i) / 2);
+            shotY[i] = quantize(projectiles.getY(i) + projectiles.getHeight(i) / 2);
+            shotAngle[i] = (byte) MathUtils.round(projectiles.getAngle(i) / 360f * 256);
+            shotTeam[i] = (byte) projectiles.getTeam(i);
+        }
+    }
+
+    // Back to the empty state, the baseline of full snapshots
+    public void clear() {
+        tick = -1;
+        tankCount = 0;
+        shotCount = 0;
+    }
+
+    // Writes this state as the changes from baseline. Throws BufferOverflowException if the
+    // tanks alone don't fit.
+    public void writeDelta(ByteBuffer out, WorldState baseline) {
+        out.putShort((short) tankCount);
+        int changedAt = out.position();
+        out.putShort((short) 0);
+
+        int changed = 0;
+        for (int i = 0; i < tankCount; i++) {
+            boolean known = i < baseline.tankCount;
+            int fields = 0;
+            if (!known || x[i] != baseline.x[i]) fields |= FIELD_X;
+            if (!known || y[i] != baseline.y[i]) fields |= FIELD_Y;
+            if (!known || angle[i] != baseline.angle[i]) fields |= FIELD_ANGLE;
+            if (!known || health[i] != baseline.health[i]) fields |= FIELD_HEALTH;
+            if (!known || flags[i] != baseline.flags[i]) fields |= FIELD_FLAGS;
+            if (!known || team[i] != baseline.team[i]) fields |= FIELD_TEAM;
+            if (fields == 0) continue;
+
+            out.putShort((short) i);
+            out.put((byte) fields);
+            if ((fields & FIELD_X) != 0) out.putShort(x[i]);
+            if ((fields & FIELD_Y) != 0) out.putShort(y[i]);
+            if ((fields & FIELD_ANGLE) != 0) out.putShort(angle[i]);
+            if ((fields & FIELD_HEALTH) != 0) out.putShort(health[i]);
+            if ((fields & FIELD_FLAGS) != 0) out.put(flags[i]);
+            if ((fields & FIELD_TEAM) != 0) out.put(team[i]);
+            changed++;
+        }
+        out.putShort(changedAt, (short) changed);
+
+        int shots = Math.min(shotCount, (out.remaining() - 2) / SHOT_SIZE);
+        out.putShort((short) shots);
+        for (int i = 0; i < shots; i++) {
+            out.putShort(shotX[i]).putShort(shotY[i]).put(shotAngle[i]).put(shotTeam[i]);
+        }
+    }
+
+    // Takes baseline and applies the changes writeDelta() wrote
+    public void readDelta(ByteBuffer in, WorldState baseline, int tick) {
+        this.tick = tick;
+
+        setTankCount(in.getShort());
+        int known = Math.min(tankCount, baseline.tankCount);
+        System.arraycopy(baseline.x, 0, x, 0, known);
+        System.arraycopy(baseline.y, 0, y, 0, known);
+        System.arraycopy(baseline.angle, 0, angle, 0, known);
+        System.arraycopy(baseline.health, 0, health, 0, known);
+        System.arraycopy(baseline.flags, 0, flags, 0, known);
+        System.arraycopy(baseline.team, 0, team, 0, known);
+
+        int changed = in.getShort();
+        for (int n = 0; n < changed; n++) {
+            int i = in.getShort();
+            int fields = in.get();
+            if ((fields & FIELD_X) != 0) x[i] = in.getShort();
+            if ((fields & FIELD_Y) != 0) y[i] = in.getShort();
+            if ((fields & FIELD_ANGLE) != 0) angle[i] = in.getShort();
+            if ((fields & FIELD_HEALTH) != 0) health[i] = in.getShort();
+            if ((fields & FIELD_FLAGS) != 0) flags[i] = in.get();
+            if ((fields & FIELD_TEAM) != 0) team[i] = in.get();
+        }
+
+        setShotCount(in.getShort());
+        for (int i = 0; i < shotCount; i++) {
+            shotX[i] = in.getShort();
+            shotY[i] = in.getShort();
+            shotAngle[i] = in.get();
+            shotTeam[i] = in.get();
+        }
+    }
+
+    // Same tanks and the same leading shots, for checking what a client decoded
+    public boolean matches(WorldState other) {
+        if (tankCount != other.tankCount) return false;
+        for (int i = 0; i < tankCount; i++) {
+            if (x[i] != other.x[i] || y[i] != other.y[i] || angle[i] != other.angle[i]
+                    || health[i] != other.health[i] || flags[i] != other.flags[i] || team[i] != other.team[i]) {
+                return false;
+            }
+        }
+        int shots = Math.min(shotCount, other.shotCount);
+        for (int i = 0; i < shots; i++) {
+            if (shotX[i] != other.shotX[i] || shotY[i] != other.shotY[i]) return false;
+        }
+        return true;
+    }
+
+    private void setTankCount(int count) {
+        if (count > x.length) {
+            int capacity = Math.max(count, x.length * 2);
+            x = copyOf(x, capacity);
+            y = copyOf(y, capacity);
+            angle = copyOf(angle, capacity);
+            health = copyOf(health, capacity);
+            flags = copyOf(flags, capacity);
+            team = copyOf(team, capacity);
+        }
+        tankCount = count;
+    }
+
+    private void setShotCount(int count) {
+        if (count > shotX.length) {
+            int capacity = Math.max(count, shotX.length * 2);
+            shotX = copyOf(shotX, capacity);
+            shotY = copyOf(shotY, capacity);
+            shotAngle = copyOf(shotAngle, capacity);
+            shotTeam = copyOf(shotTeam, capacity);
+        }
+        shotCount = count;
+    }
+
+    private static short quantize(float value) {
+        return (short) MathUtils.round(value * POSITION_SCALE);
+    }
+
+    private static short[] copyOf(short[] array, int capacity) {
+        short[] resized = new short[capacity];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+
+    private static byte[] copyOf(byte[] array, int capacity) {
+        byte[] resized = new byte[capacity];
+        System.arraycopy(array, 0, resized, 0, array.length);
+        return resized;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getTankCount() {
+        return tankCount;
+    }
+
+    public float getTankX(int i) {
+        return x[i] / (float) POSITION_SCALE;
+    }
+
+    public float getTankY(int i) {
+        return y[i] / (float) POSITION_SCALE;
+    }
+
+    // radians, 0 to 2 PI
+    public float getTankOrientation(int i) {
+        return (angle[i] & 0xffff) / 65536f * MathUtils.PI2;
+    }
+
+    public int getTankHealth(int i) {
+        return health[i];
+    }
+
+    public int getTankFlags(int i) {
+        return flags[i];
+    }
+
+    public int getTankTeam(int i) {
+        return team[i];
+    }
+
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    public float getShotX(int i) {
+        return shotX[i] / (float) POSITION_SCALE;
+    }
+
+    public float getShotY(int i) {
+        return shotY[i] / (float) POSITION_SCALE;
+    }
+
+    // degrees
+    public float getShotAngle(int i) {
+        return (shotAngle[i] & 0xff) / 256f * 360f;
+    }
+
+    public int getShotTeam(int i) {
+        return shotTeam[i];
+    }
+}